@@ -1,20 +1,81 @@
 package com.bankingsystem;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 public abstract class Account {
+    // Balance is held as a fixed-point amount in cents (see Money) to avoid floating-point drift.
+    // It is private and only updated through CAS so concurrent deposits/withdrawals never lose updates.
+    private volatile long balanceCents;
+
     // Encapsulated (protected) attributes - accessible by subclasses
-    protected double balance;
     protected String accountNumber;
     protected String branch;
 
+    // Account number encoded as a primitive (see AccountId); AccountId.NONE if it does not fit the scheme
+    private final long id;
+
+    // Lazy daily accrual (opt-in, see enableDailyAccrual): the UTC epoch day up to which
+    // interest has been credited, or NOT_ACCRUING for accounts on monthly posting.
+    private static final long NOT_ACCRUING = Long.MIN_VALUE;
+    // Held in lastAccrualDay while one thread credits the days it claimed, so the new day is
+    // only published together with the interest for it (see getLastAccrualDay)
+    private static final long ACCRUING = Long.MIN_VALUE + 1;
+    private volatile long lastAccrualDay = NOT_ACCRUING;
+
+    // Last monthly period posted to this account (see InterestScheduler.periodOf), claimed
+    // with a CAS so each period is posted at most once. A new account has none until Database
+    // starts it at the period currently due (see startInterestPeriods), so it earns nothing
+    // for months that ended before it was opened.
+    static final int NO_INTEREST_PERIOD = Integer.MIN_VALUE;
+    private volatile int lastInterestPeriod;
+
+    // Last day (epoch day) an end-of-day fee was charged for, claimed with a CAS so a day's
+    // fee is charged at most once even if the sweep is retried
+    static final long NO_FEE_DAY = Long.MIN_VALUE;
+    private volatile long lastFeeDay = NO_FEE_DAY;
+
+    /** Returned by creditCents and debitCents when the operation was rejected. */
+    public static final long REJECTED = Long.MIN_VALUE;
+
+    private static final VarHandle BALANCE;
+    private static final VarHandle LAST_ACCRUAL_DAY;
+    private static final VarHandle LAST_INTEREST_PERIOD;
+    private static final VarHandle LAST_FEE_DAY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BALANCE = lookup.findVarHandle(Account.class, "balanceCents", long.class);
+            LAST_ACCRUAL_DAY = lookup.findVarHandle(Account.class, "lastAccrualDay", long.class);
+            LAST_INTEREST_PERIOD = lookup.findVarHandle(Account.class, "lastInterestPeriod", int.class);
+            LAST_FEE_DAY = lookup.findVarHandle(Account.class, "lastFeeDay", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * Constructor to initialize shared account properties.
      * @param accountNumber The unique identifier for the account.
      * @param branch The bank branch where the account is held.
      */
     public Account(String accountNumber, String branch) {
+        this(accountNumber, branch, 0L); // Default starting balance
+    }
+
+    /**
+     * Constructor used by subclasses that open the account with an initial balance.
+     * @param accountNumber The unique identifier for the account.
+     * @param branch The bank branch where the account is held.
+     * @param initialBalanceCents The opening balance, in cents.
+     */
+    protected Account(String accountNumber, String branch, long initialBalanceCents) {
         this.accountNumber = accountNumber;
         this.branch = branch;
-        this.balance = 0.0; // Default starting balance
+        this.balanceCents = initialBalanceCents;
+        this.id = AccountId.encode(accountNumber);
+        this.lastInterestPeriod = NO_INTEREST_PERIOD;
     }
 
     /**
@@ -22,27 +83,344 @@ public abstract class Account {
      * @param amount The amount to deposit.
      */
     public void deposit(double amount) {
-        if (amount > 0) {
-            balance += amount;
-            System.out.println("Deposited: " + amount);
+        depositCents(Money.fromAmount(amount));
+    }
+
+    /**
+     * Fixed-point deposit used by the transfer and batch paths.
+     * @param cents The amount to deposit, in cents.
+     * @return true if the deposit was applied, false if the amount was not positive.
+     * @see #creditCents(long)
+     */
+    public boolean depositCents(long cents) {
+        return creditCents(cents) != REJECTED;
+    }
+
+    /**
+     * Deposits and reports the balance this deposit produced. A deposit has no floor to
+     * check, so it is a single wait-free atomic add, and the balance returned is the result
+     * of that add: other threads' later changes are not mixed in, so it can be journaled as is.
+     * @param cents The amount to deposit, in cents.
+     * @return The balance right after the deposit, in cents, or REJECTED if the amount was not positive.
+     */
+    public final long creditCents(long cents) {
+        BankingEvents.AccountMutation event = new BankingEvents.AccountMutation();
+        event.begin();
+        long balanceAfter;
+        if (cents > 0) {
+            accrueInterest(); // interest up to today is earned on the balance before this deposit
+            balanceAfter = (long) BALANCE.getAndAdd(this, cents) + cents;
+            EventLogger.getInstance().log(EventLogger.Type.DEPOSITED, accountNumber, cents, balanceAfter);
         } else {
-            System.out.println("Invalid deposit amount.");
+            EventLogger.getInstance().log(EventLogger.Type.DEPOSIT_INVALID, accountNumber, cents, getBalanceCents());
+            balanceAfter = REJECTED;
         }
+        commitMutation(event, "Deposit", cents, balanceAfter);
+        return balanceAfter;
+    }
+
+    /**
+     * Withdraws funds, converting the decimal amount to cents first.
+     * @param amount The amount to withdraw.
+     * @return true if the withdrawal was successful (e.g., sufficient funds), false otherwise.
+     */
+    public boolean withdraw(double amount) {
+        return withdrawCents(Money.fromAmount(amount));
     }
 
     // Getter methods (encapsulation)
     public double getBalance() {
-        return balance;
+        return Money.toAmount(getBalanceCents());
+    }
+
+    /**
+     * Returns the balance in cents. For accounts on daily accrual, any interest earned
+     * since the last accrual is credited first, so the balance is always current.
+     */
+    public long getBalanceCents() {
+        accrueInterest();
+        return balanceCents;
+    }
+
+    /**
+     * @return The balance in cents as stored, without crediting accrued interest first (see DatabaseSnapshot).
+     */
+    long getRawBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * Sets the balance replayed from a journal record. Only used while recovering.
+     */
+    void restoreBalanceCents(long cents) {
+        balanceCents = cents;
     }
 
     public String getAccountNumber() {
         return accountNumber;
     }
 
+    /**
+     * @return The account number encoded as a primitive id, or AccountId.NONE if it cannot be encoded.
+     */
+    public long getId() {
+        return id;
+    }
+
     public String getBranch() {
         return branch;
     }
 
+    /**
+     * Annual interest (or return) rate in parts-per-million used by applyInterest.
+     * Accounts that earn no interest return 0.
+     */
+    public long getAnnualRatePpm() {
+        return 0L;
+    }
+
+    // --- End-of-day fees ---
+
+    /**
+     * Fee rule evaluated once a day by the FeeSweepEngine, against the balance the account
+     * holds when the sweep runs. Accounts without a fee rule charge nothing.
+     * @param balanceCents The account's balance, in cents.
+     * @return The fee to charge, in cents (0 for none).
+     */
+    public long endOfDayFeeCents(long balanceCents) {
+        return 0L;
+    }
+
+    /**
+     * @return The description journaled with this account's end-of-day fee.
+     */
+    public String getEndOfDayFeeDescription() {
+        return "Fee";
+    }
+
+    /**
+     * @return The last day (epoch day) an end-of-day fee was charged for, or NO_FEE_DAY if none.
+     */
+    public long getLastFeeDay() {
+        return lastFeeDay;
+    }
+
+    /**
+     * Restores the fee state read back from a snapshot or the journal. Only used while loading
+     * and recovering.
+     */
+    void restoreLastFeeDay(long epochDay) {
+        lastFeeDay = epochDay;
+    }
+
+    /**
+     * Claims the end-of-day fee for {@code epochDay}. Exactly one caller wins the claim for a
+     * given day, so a sweep that is repeated (e.g. retried after a crash) charges nothing twice.
+     * @param epochDay The day whose fee is being charged.
+     * @return true if the caller must charge the fee, false if it was already charged for that day or a later one.
+     */
+    boolean claimFeeDay(long epochDay) {
+        while (true) {
+            long last = lastFeeDay;
+            if (last >= epochDay) {
+                return false;
+            }
+            if (LAST_FEE_DAY.compareAndSet(this, last, epochDay)) {
+                return true;
+            }
+            onContention();
+        }
+    }
+
+    // --- Lazy daily accrual ---
+
+    /**
+     * Switches this account from monthly interest posting to lazy daily accrual.
+     * Interest then accrues from {@code fromEpochDay} and is credited in closed form
+     * (see DailyAccrual) whenever the balance is next read or changed; an account
+     * nobody touches costs nothing. Has no effect if accrual is already enabled.
+     * @param fromEpochDay The UTC epoch day from which interest accrues.
+     * @return true if accrual was enabled by this call.
+     */
+    public boolean enableDailyAccrual(long fromEpochDay) {
+        return LAST_ACCRUAL_DAY.compareAndSet(this, NOT_ACCRUING, fromEpochDay);
+    }
+
+    public boolean isDailyAccrualEnabled() {
+        return lastAccrualDay != NOT_ACCRUING;
+    }
+
+    /**
+     * @return The UTC epoch day up to which interest has been credited, or Long.MIN_VALUE if accrual is not enabled.
+     */
+    public long getLastAccrualDay() {
+        while (true) {
+            long day = lastAccrualDay;
+            if (day != ACCRUING) {
+                return day;
+            }
+            onContention();
+        }
+    }
+
+    /**
+     * Restores the accrual state read back from a snapshot. Only used while loading.
+     */
+    void restoreLastAccrualDay(long epochDay) {
+        lastAccrualDay = epochDay;
+    }
+
+    /**
+     * Credits the interest accrued up to today, if daily accrual is enabled.
+     * @return The interest credited, in cents.
+     */
+    public long accrueInterest() {
+        // Fast path for accounts on monthly posting: one volatile read
+        return lastAccrualDay == NOT_ACCRUING ? 0L : accrueInterestTo(DailyAccrual.today());
+    }
+
+    /**
+     * Credits the interest accrued from the last accrual day up to {@code epochDay},
+     * compounded daily at the account's annual rate and rounded half-even to the cent.
+     * The days are claimed with a CAS on the accrual day before the interest is added,
+     * so concurrent readers can never credit the same days twice, and the new day is only
+     * published once the interest has been added.
+     * @param epochDay The UTC epoch day to accrue up to.
+     * @return The interest credited, in cents (0 if accrual is disabled or already up to date).
+     */
+    public long accrueInterestTo(long epochDay) {
+        while (true) {
+            long last = lastAccrualDay;
+            if (last == NOT_ACCRUING) {
+                return 0L;
+            }
+            if (last != ACCRUING) {
+                if (epochDay <= last) {
+                    return 0L;
+                }
+                if (LAST_ACCRUAL_DAY.compareAndSet(this, last, ACCRUING)) {
+                    // Every mutation accrues first, so the balance has been constant since the last accrual day
+                    long interest = DailyAccrual.interestFor(balanceCents, getAnnualRatePpm(), epochDay - last);
+                    if (interest != 0L) {
+                        BALANCE.getAndAdd(this, interest);
+                    }
+                    lastAccrualDay = epochDay;
+                    return interest;
+                }
+            }
+            onContention();
+        }
+    }
+
+    // --- Scheduled interest periods ---
+
+    /**
+     * @return The last monthly period posted to this account, or NO_INTEREST_PERIOD if not started yet.
+     */
+    public int getLastInterestPeriod() {
+        return lastInterestPeriod;
+    }
+
+    /**
+     * Restores the posted-period state read back from a snapshot or the journal, as it was
+     * saved (NO_INTEREST_PERIOD included). Only used while loading and recovering.
+     */
+    void restoreLastInterestPeriod(int period) {
+        lastInterestPeriod = period;
+    }
+
+    /**
+     * Starts the posted-period state of an account that has none, so it earns nothing for
+     * months that ended before it was opened, or before it was migrated from a snapshot
+     * saved without this state. A period already posted or restored is kept.
+     * Database calls this whenever it indexes an account.
+     * @param duePeriod The period currently due (see InterestScheduler.duePeriod).
+     */
+    void startInterestPeriods(int duePeriod) {
+        LAST_INTEREST_PERIOD.compareAndSet(this, NO_INTEREST_PERIOD, duePeriod);
+    }
+
+    /**
+     * Claims every period up to and including {@code period} for posting. Exactly one
+     * caller wins the claim for a given range, which makes posting idempotent even if
+     * runs overlap or are repeated after a crash. Every posting path (applyInterest, the
+     * InterestScheduler and the InterestBatchEngine) claims here before crediting.
+     * An account that was never started (see startInterestPeriods) is started at
+     * {@code period} instead, without posting anything.
+     * @param period The period being posted.
+     * @return The number of months the caller must post (0 if already posted up to {@code period}).
+     */
+    int claimInterestPeriods(int period) {
+        while (true) {
+            int last = lastInterestPeriod;
+            if (last >= period) {
+                return 0;
+            }
+            if (last == NO_INTEREST_PERIOD) {
+                // No months from before the account was first seen are owed
+                if (LAST_INTEREST_PERIOD.compareAndSet(this, last, period)) {
+                    return 0;
+                }
+                continue;
+            }
+            if (LAST_INTEREST_PERIOD.compareAndSet(this, last, period)) {
+                return period - last;
+            }
+            onContention();
+        }
+    }
+
+    // --- Atomic balance primitives for subclasses ---
+
+    /**
+     * Atomically replaces the balance if it still equals {@code expectedCents}.
+     * Subclasses build their withdraw rules as read-check-CAS loops on top of this,
+     * so the rule (overdraft floor, fees, penalties) is evaluated against the exact
+     * balance being replaced.
+     * @param expectedCents The balance the caller based its decision on.
+     * @param newCents The balance to install.
+     * @return true if the balance was updated, false if another thread changed it first.
+     */
+    protected final boolean compareAndSetBalance(long expectedCents, long newCents) {
+        return BALANCE.compareAndSet(this, expectedCents, newCents);
+    }
+
+    /**
+     * Called after a failed CAS before retrying. Hints the CPU that we are spinning,
+     * which reduces contention on a hot account without taking a lock.
+     */
+    protected static void onContention() {
+        Thread.onSpinWait();
+    }
+
+    /**
+     * Credits the monthly interest due at the given annual rate, rounded half-even (banker's rounding).
+     * The months ended since the last posting are claimed first (see claimInterestPeriods),
+     * so this credits nothing for a month the InterestScheduler has already posted, and
+     * interest is computed from the exact balance it is applied to.
+     * Shared by the interest-bearing subclasses. Accounts on daily accrual are not
+     * posted monthly; for them this only brings the accrual up to date.
+     * @param annualRatePpm The annual rate in parts-per-million.
+     * @return The interest credited, in cents.
+     */
+    protected long creditMonthlyInterest(long annualRatePpm) {
+        if (isDailyAccrualEnabled()) {
+            return accrueInterest();
+        }
+        int months = claimInterestPeriods(InterestScheduler.duePeriod());
+        if (months == 0) {
+            return 0L;
+        }
+        while (true) {
+            long current = balanceCents;
+            long interest = InterestScheduler.compoundInterest(current, annualRatePpm, months);
+            if (compareAndSetBalance(current, current + interest)) {
+                return interest;
+            }
+            onContention();
+        }
+    }
+
     // Abstract methods to be implemented differently by each account type
     // Demonstrates abstraction and polymorphism
 
@@ -53,10 +431,53 @@ public abstract class Account {
     public abstract void applyInterest();
 
     /**
-     * Abstract method for withdrawing funds.
-     * FIX: The return type is changed from 'void' to 'boolean'.
-     * @param amount The amount to withdraw.
+     * Withdraws funds under the account type's rules.
+     * @param cents The amount to withdraw, in cents.
      * @return true if the withdrawal was successful (e.g., sufficient funds), false otherwise.
+     * @see #debitCents(long)
+     */
+    public final boolean withdrawCents(long cents) {
+        return debitCents(cents) != REJECTED;
+    }
+
+    /**
+     * Withdraws funds under the account type's rules (see {@link #performWithdrawal(long)}),
+     * reports the attempt to Flight Recorder and returns the balance the withdrawal produced,
+     * i.e. the value installed by its CAS, so it can be journaled as is.
+     * @param cents The amount to withdraw, in cents.
+     * @return The balance right after the withdrawal, in cents, or REJECTED if it was refused.
+     */
+    public final long debitCents(long cents) {
+        BankingEvents.AccountMutation event = new BankingEvents.AccountMutation();
+        event.begin();
+        long balanceAfter = performWithdrawal(cents);
+        commitMutation(event, "Withdraw", cents, balanceAfter);
+        return balanceAfter;
+    }
+
+    /**
+     * Abstract method for withdrawing funds.
+     * @param cents The amount to withdraw, in cents.
+     * @return The balance installed by the withdrawal, in cents, or REJECTED if it was refused
+     *         (e.g., insufficient funds).
      */
-    public abstract boolean withdraw(double amount);
-}
\ No newline at end of file
+    protected abstract long performWithdrawal(long cents);
+
+    /**
+     * Completes an AccountMutation event; the fields are only filled in while a
+     * recording has the event enabled.
+     */
+    private void commitMutation(BankingEvents.AccountMutation event, String operation, long cents, long balanceAfter) {
+        event.end();
+        if (event.shouldCommit()) {
+            AccountType type = AccountType.of(this);
+            event.accountNumber = accountNumber;
+            event.accountType = type == null ? getClass().getSimpleName() : type.getDisplayName();
+            event.operation = operation;
+            event.amountCents = cents;
+            event.applied = balanceAfter != REJECTED;
+            event.balanceAfterCents = balanceAfter != REJECTED ? balanceAfter : (long) BALANCE.getVolatile(this);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bankingsystem;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Passes the selected account to a destination page controller.
+ * Controllers implementing {@link AccountContextAware} are called directly. For any other
+ * controller a public {@code setSourceAccount(Account, String)} method is looked up once
+ * per controller class and cached as a MethodHandle, so navigation never repeats a
+ * reflective lookup; classes without such a method are cached as "no handle" too.
+ */
+public final class AccountContext {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Account.class, String.class);
+
+    private static final ClassValue<MethodHandle> SETTERS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                MethodHandle setter = MethodHandles.publicLookup().findVirtual(type, "setSourceAccount", SETTER_TYPE);
+                // (Object, Account, String)void, so it can be called with invokeExact on any controller
+                return setter.asType(MethodType.methodType(void.class, Object.class, Account.class, String.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    };
+
+    private AccountContext() {
+    }
+
+    /**
+     * Gives {@code account} to {@code controller} if it can take it.
+     * @param controller The destination page's controller (may be null).
+     * @param account The account selected on the calling page.
+     * @param accountType The type of the account, for display.
+     * @return true if the controller received the account, false if it has no way to.
+     */
+    public static boolean pass(Object controller, Account account, String accountType) {
+        if (controller instanceof AccountContextAware) {
+            ((AccountContextAware) controller).setSourceAccount(account, accountType);
+            return true;
+        }
+        if (controller == null) {
+            return false;
+        }
+        MethodHandle setter = SETTERS.get(controller.getClass());
+        if (setter == null) {
+            return false;
+        }
+        try {
+            setter.invokeExact(controller, account, accountType);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // setSourceAccount declares no checked exceptions, so this cannot normally happen
+            throw new IllegalStateException("setSourceAccount failed on " + controller.getClass().getName(), e);
+        }
+        return true;
+    }
+}
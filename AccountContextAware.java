@@ -0,0 +1,18 @@
+package com.bankingsystem;
+
+/**
+ * Implemented by page controllers that act on one account (deposit, withdraw, transfer,
+ * transaction history). The account page that navigates to them passes the account
+ * through this interface, a plain interface call instead of a reflective lookup.
+ * @see AccountContext
+ */
+public interface AccountContextAware {
+
+    /**
+     * Receives the account the page should act on. Called on the FX thread after the
+     * page has been shown (and refreshed, if it is SceneNavigator.Refreshable).
+     * @param account The account selected on the calling page.
+     * @param accountType The type of the account, for display (e.g. "Savings", "Cheque").
+     */
+    void setSourceAccount(Account account, String accountType);
+}
@@ -0,0 +1,101 @@
+package com.bankingsystem;
+
+/**
+ * Encodes account numbers of the form prefix-letter plus digits (e.g. "S1001") into a
+ * single non-negative {@code long}, so they can be hashed and compared as primitives.
+ *
+ * Bit layout:
+ * <pre>
+ * 63     sign, always 0 for a valid id
+ * 56-62  prefix character (ASCII 'A'-'Z')
+ * 52-55  number of digits (1-15), so "S01" and "S1" stay distinct
+ * 0-51   numeric part
+ * </pre>
+ * Numbers that do not fit this scheme encode to {@link #NONE}.
+ */
+public final class AccountId {
+
+    /** Returned for account numbers that cannot be encoded. */
+    public static final long NONE = -1L;
+
+    private static final int MAX_DIGITS = 15;
+    private static final int TAG_SHIFT = 56;
+    private static final int DIGITS_SHIFT = 52;
+    private static final long VALUE_MASK = (1L << DIGITS_SHIFT) - 1;
+
+    private AccountId() {
+        // Utility class
+    }
+
+    /**
+     * Encodes an account number.
+     * @param accountNumber The account number (e.g. "C2002").
+     * @return The encoded id, or {@link #NONE} if the number does not follow the prefix-plus-digits scheme.
+     */
+    public static long encode(String accountNumber) {
+        if (accountNumber == null) {
+            return NONE;
+        }
+        int digits = accountNumber.length() - 1;
+        if (digits < 1 || digits > MAX_DIGITS) {
+            return NONE;
+        }
+        char tag = accountNumber.charAt(0);
+        if (tag < 'A' || tag > 'Z') {
+            return NONE;
+        }
+        long value = 0;
+        for (int i = 1; i <= digits; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return NONE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) tag << TAG_SHIFT) | ((long) digits << DIGITS_SHIFT) | value;
+    }
+
+    /**
+     * Decodes an id back into its account number.
+     * @param id An id produced by {@link #encode(String)}.
+     * @return The account number.
+     */
+    public static String decode(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Not an encoded account id: " + id);
+        }
+        int digits = (int) ((id >>> DIGITS_SHIFT) & 0xF);
+        char[] chars = new char[digits + 1];
+        chars[0] = (char) (id >>> TAG_SHIFT);
+        long value = id & VALUE_MASK;
+        for (int i = digits; i >= 1; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param id An encoded id.
+     * @return The account type of its prefix, or null if the prefix is not a known type.
+     */
+    public static AccountType typeOf(long id) {
+        return id < 0 ? null : AccountType.fromCode((char) (id >>> TAG_SHIFT));
+    }
+
+    /**
+     * Mixes the bits of an id so that sequential account numbers spread evenly over
+     * hash tables and lock stripes (the finalizer of MurmurHash3).
+     * @param id An encoded id.
+     * @return The mixed hash.
+     */
+    public static long hash(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bankingsystem;
+
+/**
+ * Enumerates the concrete account types in the system together with the
+ * single-character prefix used in their account numbers (e.g. "S1001").
+ */
+public enum AccountType {
+    SAVINGS('S', "Savings"),
+    CHEQUE('C', "Cheque"),
+    INVESTMENT('I', "Investment");
+
+    private final char code;
+    private final String displayName;
+
+    AccountType(char code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Resolves the type of an account instance.
+     * @param account The account.
+     * @return The matching AccountType, or null if the account is not one of the known subclasses.
+     */
+    public static AccountType of(Account account) {
+        if (account instanceof Savings) {
+            return SAVINGS;
+        } else if (account instanceof ChequeAccount) {
+            return CHEQUE;
+        } else if (account instanceof InvestmentAccount) {
+            return INVESTMENT;
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a type from its account-number prefix code.
+     * @param code The prefix character (e.g. 'S').
+     * @return The matching AccountType, or null if the code is unknown.
+     */
+    public static AccountType fromCode(char code) {
+        switch (code) {
+            case 'S':
+                return SAVINGS;
+            case 'C':
+                return CHEQUE;
+            case 'I':
+                return INVESTMENT;
+            default:
+                return null;
+        }
+    }
+}
@@ -2,14 +2,9 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
@@ -59,17 +54,8 @@ public class AccountsPageController implements Initializable {
      */
     private void switchSceneSimple(ActionEvent event, String fxmlFileName, String title) {
         try {
-            // 1. Load the FXML file from the /fxml/ directory
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/" + fxmlFileName));
-            Scene scene = new Scene(root);
-
-            // 2. Get the current Stage (Window)
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-
-            // 3. Set the new Scene
-            window.setScene(scene);
-            window.setTitle(title);
-            window.show();
+            // Show the page from the /fxml/ directory (loaded once, then reused)
+            SceneNavigator.getInstance().show(event, "/fxml/" + fxmlFileName, title);
 
         } catch (IOException e) {
             e.printStackTrace();
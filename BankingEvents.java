@@ -0,0 +1,158 @@
+package com.bankingsystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event types for banking operations, so a recording shows
+ * business operations on the same timeline as GC pauses, safepoints and file I/O.
+ *
+ * The usual JFR pattern applies at every call site: create the event, {@code begin()},
+ * do the work, then fill in the fields only {@code if (event.shouldCommit())}. When no
+ * recording has the event enabled, shouldCommit() is false and the JIT removes the
+ * unused event object, so the cost is close to zero.
+ *
+ * The high-volume events (account mutations and journal appends) are disabled unless a
+ * recording enables them; the bundled banking.jfc does, e.g.
+ * {@code java -XX:StartFlightRecording=settings=banking.jfc,filename=bank.jfr ...}.
+ */
+final class BankingEvents {
+
+    private static final String CATEGORY = "Banking";
+
+    private BankingEvents() {
+    }
+
+    @Name("com.bankingsystem.AccountMutation")
+    @Label("Account Mutation")
+    @Category({CATEGORY, "Accounts"})
+    @Description("A deposit or withdrawal applied to (or refused by) an account")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class AccountMutation extends Event {
+        @Label("Account Number")
+        String accountNumber;
+
+        @Label("Account Type")
+        String accountType;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Amount (cents)")
+        long amountCents;
+
+        @Label("Applied")
+        boolean applied;
+
+        @Label("Balance After (cents)")
+        long balanceAfterCents;
+    }
+
+    @Name("com.bankingsystem.Transfer")
+    @Label("Transfer")
+    @Category({CATEGORY, "Accounts"})
+    @Description("A transfer requested on the transfer page, from the click until its result is shown")
+    static final class Transfer extends Event {
+        @Label("Source Account")
+        String sourceAccount;
+
+        @Label("Destination Account")
+        String destinationAccount;
+
+        @Label("Amount (cents)")
+        long amountCents;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.bankingsystem.JournalAppend")
+    @Label("Journal Append")
+    @Category({CATEGORY, "Journal"})
+    @Description("A record written into the memory-mapped transaction journal")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class JournalAppend extends Event {
+        @Label("Transaction Type")
+        String transactionType;
+
+        @Label("Account Number")
+        String accountNumber;
+
+        @Label("Position")
+        long position;
+
+        @Label("Durability")
+        String durability;
+    }
+
+    @Name("com.bankingsystem.JournalFlush")
+    @Label("Journal Flush")
+    @Category({CATEGORY, "Journal"})
+    @Description("Journal records forced to disk (one group commit, or one record with PER_RECORD durability)")
+    @StackTrace(false)
+    static final class JournalFlush extends Event {
+        @Label("From Position")
+        long fromPosition;
+
+        @Label("To Position")
+        long toPosition;
+
+        @Label("Records")
+        long records;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.bankingsystem.FxmlLoad")
+    @Label("FXML Load")
+    @Category({CATEGORY, "UI"})
+    @Description("An FXML page parsed and its scene built by the SceneNavigator")
+    @StackTrace(false)
+    static final class FxmlLoad extends Event {
+        @Label("FXML Path")
+        String fxmlPath;
+
+        @Label("Controller")
+        String controller;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.bankingsystem.InterestPosting")
+    @Label("Interest Posting")
+    @Category({CATEGORY, "Interest"})
+    @Description("Monthly interest posted to a group of accounts: one scheduler partition or one batch run")
+    @Threshold("0 ms")
+    static final class InterestPosting extends Event {
+        @Label("Period")
+        String period;
+
+        @Label("Partition")
+        @Description("Scheduler partition, or -1 for an InterestBatchEngine run")
+        int partition;
+
+        @Label("Accounts")
+        long accounts;
+
+        @Label("Accounts Posted")
+        long accountsPosted;
+
+        @Label("Total Interest (cents)")
+        long totalInterestCents;
+    }
+}
@@ -4,7 +4,8 @@ package com.bankingsystem;
  * Represents a Cheque Account, a type of Account that supports an overdraft limit.
  */
 public class ChequeAccount extends Account {
-    private double overdraftLimit;
+    private long overdraftLimitCents;
+    private static final long OVERDRAFT_FEE = 5_00L; // $5.00 in cents, per day spent overdrawn
 
     /**
      * Constructor for ChequeAccount.
@@ -15,40 +16,79 @@ public class ChequeAccount extends Account {
      * @param branch The branch where the account is held.
      */
     public ChequeAccount(String accountNumber, double initialBalance, double overdraftLimit, String branch) {
-        // CALL to Account constructor, now requiring branch
-        super(accountNumber, branch);
+        // CALL to Account constructor, now requiring branch and the opening balance
+        super(accountNumber, branch, Money.fromAmount(initialBalance));
 
-        // The Account constructor initializes balance to 0.0, so we must manually set it here.
-        this.balance = initialBalance;
+        this.overdraftLimitCents = Math.max(0L, Money.fromAmount(overdraftLimit));
+    }
+
+    /**
+     * Fixed-point constructor, used when restoring accounts (e.g. from a DatabaseSnapshot)
+     * so the stored cents are not rounded through a double.
+     * @param accountNumber Unique account number.
+     * @param branch The branch where the account is held.
+     * @param initialBalanceCents Starting balance, in cents.
+     * @param overdraftLimitCents The maximum negative balance allowed, in cents.
+     */
+    public ChequeAccount(String accountNumber, String branch, long initialBalanceCents, long overdraftLimitCents) {
+        super(accountNumber, branch, initialBalanceCents);
 
-        this.overdraftLimit = Math.max(0, overdraftLimit);
+        this.overdraftLimitCents = Math.max(0L, overdraftLimitCents);
     }
 
+    /**
+     * Withdraws funds as a single atomic step; the overdraft floor is checked
+     * against the exact balance that is replaced.
+     */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
-            System.err.println("Withdrawal amount must be positive.");
-            return false;
+    protected long performWithdrawal(long cents) {
+        if (cents <= 0) {
+            EventLogger.getInstance().log(EventLogger.Type.WITHDRAWAL_INVALID, this.accountNumber, cents, getBalanceCents());
+            return REJECTED;
         }
 
-        if (this.balance - amount >= -this.overdraftLimit) {
-            this.balance -= amount;
-            System.out.printf("Withdrawal of %.2f successful from Cheque Account %s. Remaining balance: $%.2f%n",
-                    amount, this.accountNumber, this.balance);
-            return true;
-        } else {
-            System.err.printf("Withdrawal of %.2f failed. Exceeds overdraft limit of $%.2f. Current balance: $%.2f%n",
-                    amount, this.overdraftLimit, this.balance);
-            return false;
+        while (true) {
+            long current = getBalanceCents();
+            long updated = current - cents;
+
+            if (updated < -this.overdraftLimitCents) {
+                EventLogger.getInstance().log(EventLogger.Type.OVERDRAFT_LIMIT_EXCEEDED, this.accountNumber, cents,
+                        current, this.overdraftLimitCents);
+                return REJECTED;
+            }
+
+            if (compareAndSetBalance(current, updated)) {
+                EventLogger.getInstance().log(EventLogger.Type.WITHDRAWN, this.accountNumber, cents, updated);
+                return updated;
+            }
+            onContention();
         }
     }
 
     @Override
     public void applyInterest() {
-        System.out.println("No interest applied to Cheque Account " + this.accountNumber);
+        EventLogger.getInstance().log(EventLogger.Type.NO_INTEREST, this.accountNumber, 0L, getBalanceCents());
+    }
+
+    /**
+     * Overdraft rule: an account that ends the day inside its overdraft is charged a
+     * $5.00 fee. The fee may take the balance past the overdraft limit.
+     */
+    @Override
+    public long endOfDayFeeCents(long balanceCents) {
+        return balanceCents < 0 ? OVERDRAFT_FEE : 0L;
+    }
+
+    @Override
+    public String getEndOfDayFeeDescription() {
+        return "Overdraft fee";
     }
 
     public double getOverdraftLimit() {
-        return overdraftLimit;
+        return Money.toAmount(overdraftLimitCents);
+    }
+
+    public long getOverdraftLimitCents() {
+        return overdraftLimitCents;
     }
 }
\ No newline at end of file
@@ -2,21 +2,15 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URL; // Added URL import
 import java.util.Optional;
 
 // NOTE: Renamed to ChequeAccountController for naming consistency
-public class ChequeAccountPageController {
+public class ChequeAccountPageController implements SceneNavigator.Refreshable {
 
     // --- FXML Fields matching ChequeAccountPage.fxml ---
     @FXML private TextArea chequeTextArea;
@@ -36,12 +30,21 @@ public class ChequeAccountPageController {
     public static final String CHEQUE_ACCOUNT_TYPE = "Cheque";
 
     /**
-     * Called automatically after the FXML file is loaded.
-     * Initializes the account display using the actual data of the logged-in customer.
+     * Called automatically after the FXML file is loaded (once, as the view is cached).
      */
     @FXML
     public void initialize() {
         System.out.println("Initializing ChequeAccountController...");
+        chequeTextArea.setEditable(false);
+    }
+
+    /**
+     * Called each time the page is shown.
+     * Updates the account display using the actual data of the logged-in customer.
+     */
+    @Override
+    public void refresh() {
+        chequeAccount = null;
 
         // 1. Get the current customer
         currentCustomer = LoginPageController.getLoggedInCustomer();
@@ -66,8 +69,6 @@ public class ChequeAccountPageController {
             balanceValueLabel.setText("N/A");
             chequeTextArea.setText("No Cheque Account found for this customer.");
         }
-
-        chequeTextArea.setEditable(false);
     }
 
     /**
@@ -95,27 +96,22 @@ public class ChequeAccountPageController {
 
     @FXML
     private void handleWithdraw(ActionEvent event) {
-        // Assume FXML file is named Withdraw.fxml
-        navigateToActionPage(event, "/fxml/Withdraw.fxml", "Withdraw Funds", CHEQUE_ACCOUNT_TYPE);
+        navigateToActionPage(event, "/fxml/WithdrawPage.fxml", "Withdraw Funds", CHEQUE_ACCOUNT_TYPE);
     }
 
     @FXML
     private void handleDeposit(ActionEvent event) {
-        // Assume FXML file is named Deposit.fxml
-        navigateToActionPage(event, "/fxml/Deposit.fxml", "Deposit Funds", CHEQUE_ACCOUNT_TYPE);
+        navigateToActionPage(event, "/fxml/DepositPage.fxml", "Deposit Funds", CHEQUE_ACCOUNT_TYPE);
     }
 
     @FXML
     private void handleTransferFunds(ActionEvent event) {
-        // CRITICAL FIX: Changed from '/fxml/TransferPage.fxml' to '/fxml/Transfer.fxml'
-        // based on common naming convention and previous file name.
         navigateToActionPage(event, "/fxml/transfer .fxml", "Transfer Funds", CHEQUE_ACCOUNT_TYPE);
     }
 
 
     @FXML
     private void handleViewTransaction(ActionEvent event) {
-        // Assume FXML file is named ViewTransactions.fxml
         navigateToActionPage(event, "/fxml/ViewTransactions.fxml", "View Transactions", CHEQUE_ACCOUNT_TYPE);
     }
 
@@ -127,13 +123,7 @@ public class ChequeAccountPageController {
     private void handleExit(ActionEvent event) {
         try {
             // Assuming this is the correct path to the main dashboard/accounts page
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/AccountsPage.fxml"));
-            Scene scene = new Scene(root);
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle("Bank App - My Dashboard");
-            window.show();
+            SceneNavigator.getInstance().show(event, "/fxml/AccountsPage.fxml", "Bank App - My Dashboard");
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Error loading DashboardPage.fxml.");
@@ -154,39 +144,15 @@ public class ChequeAccountPageController {
         }
 
         try {
-            // Use getClass().getResource() to find the file
-            URL fxmlUrl = getClass().getResource(fxmlPath);
-
-            if (fxmlUrl == null) {
-                // If the resource is null, it means the file was not found, which is the cause of the IllegalStateException.
-                System.err.println("ERROR: FXML resource not found at path: " + fxmlPath);
-                // Throw an exception to halt execution if the resource is missing
-                throw new IOException("FXML file not found: " + fxmlPath);
-            }
-
-            FXMLLoader loader = new FXMLLoader(fxmlUrl);
-            Parent root = loader.load();
+            // The navigator reports a missing FXML resource as an IOException
+            SceneNavigator.View view = SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
 
             // *** IMPORTANT CONTEXT PASSING LOGIC ***
-            // This is the correct place to pass the source account (chequeAccount) to the transferController.
-            Object controller = loader.getController();
-
-            // Assuming transferController has a public method setSourceAccount(Account, String)
-            if (controller instanceof transferController) {
-                // Cast and call the setter to pass the required data
-                ((transferController) controller).setSourceAccount(chequeAccount, accountType);
-            } else {
-                // Log a warning if the controller isn't the expected type
-                System.out.println("Warning: Destination controller is not of type transferController. Data was not passed.");
+            // Every action page (withdraw, deposit, transfer, history) acts on the Cheque account
+            if (!AccountContext.pass(view.getController(), chequeAccount, accountType)) {
+                System.err.println("Warning: The controller for " + fxmlPath + " does not accept an account. Data was not passed.");
             }
 
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
-
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Fatal Error: Could not load FXML file. Details: " + e.getMessage());
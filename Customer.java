@@ -1,6 +1,6 @@
 package com.bankingsystem;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional; // Required for safe retrieval of specific account types
@@ -18,8 +18,47 @@ public class Customer {
     private final String customerCode; // Used as the login ID
     private final String password;
 
-    // The key change: List to hold the customer's various account objects.
-    private final List<Account> accounts;
+    // The customer's accounts, held copy-on-write: addAccount publishes a new AccountSlots
+    // through this volatile field and never modifies a published one, so any thread can read
+    // the accounts without a lock and always sees a complete, consistent set.
+    private volatile AccountSlots slots = AccountSlots.EMPTY;
+
+    /**
+     * Immutable account storage: all accounts in the order they were added, plus per-type
+     * slots indexed by AccountType ordinal, so typed lookups are an array access instead of a stream scan.
+     */
+    private static final class AccountSlots {
+        static final AccountSlots EMPTY = new AccountSlots(new Account[0], emptyByType());
+
+        final Account[] all;
+        final Account[][] byType;
+
+        AccountSlots(Account[] all, Account[][] byType) {
+            this.all = all;
+            this.byType = byType;
+        }
+
+        private static Account[][] emptyByType() {
+            Account[][] byType = new Account[AccountType.values().length][];
+            Arrays.fill(byType, new Account[0]);
+            return byType;
+        }
+
+        AccountSlots with(Account account) {
+            Account[] grownAll = Arrays.copyOf(all, all.length + 1);
+            grownAll[all.length] = account;
+
+            Account[][] grownByType = byType;
+            AccountType type = AccountType.of(account);
+            if (type != null) {
+                int t = type.ordinal();
+                grownByType = byType.clone();
+                grownByType[t] = Arrays.copyOf(byType[t], byType[t].length + 1);
+                grownByType[t][byType[t].length] = account;
+            }
+            return new AccountSlots(grownAll, grownByType);
+        }
+    }
 
     /**
      * Complete constructor for the Customer class.
@@ -32,51 +71,69 @@ public class Customer {
         this.email = email;
         this.customerCode = customerCode;
         this.password = password;
-        this.accounts = new ArrayList<>();
     }
 
     /**
      * Adds an account to the customer's list of accounts.
-     * Used exclusively during mock data initialization (Database.java).
+     * Copies the account arrays, so it is meant for the rare case of opening an account;
+     * concurrent readers keep seeing the previous, complete set until the new one is published.
      */
-    public void addAccount(Account account) {
-        this.accounts.add(account);
+    public synchronized void addAccount(Account account) {
+        slots = slots.with(account);
     }
 
     // --- ESSENTIAL ACCOUNT RETRIEVAL METHODS ---
 
     /**
-     * Retrieves the specific Savings account object if it exists, using Optional for safety.
+     * Retrieves the customer's first Savings account if it exists, using Optional for safety.
      * @return An Optional containing the Savings object, or empty if none is found.
      */
     public Optional<Savings> getSavingsAccount() {
-        // Find the first account in the list that is an instance of the Savings class
-        return accounts.stream()
-                .filter(account -> account instanceof Savings)
-                .map(account -> (Savings) account) // Cast it to the specific Savings type
-                .findFirst();
+        return Optional.ofNullable((Savings) getAccount(AccountType.SAVINGS, 0));
     }
 
     /**
-     * Retrieves the specific Cheque account object if it exists.
+     * Retrieves the customer's first Cheque account if it exists.
      * @return An Optional containing the ChequeAccount object, or empty if none is found.
      */
     public Optional<ChequeAccount> getChequeAccount() {
-        return accounts.stream()
-                .filter(account -> account instanceof ChequeAccount)
-                .map(account -> (ChequeAccount) account)
-                .findFirst();
+        return Optional.ofNullable((ChequeAccount) getAccount(AccountType.CHEQUE, 0));
     }
 
     /**
-     * Retrieves the specific com.bankingsystem.Investment account object if it exists.
+     * Retrieves the customer's first Investment account if it exists.
      * @return An Optional containing the InvestmentAccount object, or empty if none is found.
      */
     public Optional<InvestmentAccount> getInvestmentAccount() {
-        return accounts.stream()
-                .filter(account -> account instanceof InvestmentAccount)
-                .map(account -> (InvestmentAccount) account)
-                .findFirst();
+        return Optional.ofNullable((InvestmentAccount) getAccount(AccountType.INVESTMENT, 0));
+    }
+
+    /**
+     * Direct indexed access to the customer's accounts of one type, in the order they were added.
+     * @param type The account type.
+     * @param index The position among the customer's accounts of that type.
+     * @return The account, or null if the customer has no account at that position.
+     */
+    public Account getAccount(AccountType type, int index) {
+        Account[] ofType = slots.byType[type.ordinal()];
+        return index >= 0 && index < ofType.length ? ofType[index] : null;
+    }
+
+    /**
+     * @param type The account type.
+     * @return How many accounts of that type the customer holds.
+     */
+    public int getAccountCount(AccountType type) {
+        return slots.byType[type.ordinal()].length;
+    }
+
+    /**
+     * @param type The account type.
+     * @return An unmodifiable list of the customer's accounts of that type.
+     */
+    public List<Account> getAccounts(AccountType type) {
+        Account[] ofType = slots.byType[type.ordinal()];
+        return ofType.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(ofType));
     }
 
     // --- Getters ---
@@ -89,6 +146,18 @@ public class Customer {
         return lastName;
     }
 
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
     public String getCustomerCode() {
         return customerCode;
     }
@@ -97,9 +166,13 @@ public class Customer {
         return password;
     }
 
+    /**
+     * @return An unmodifiable list of the customer's accounts as of this call; accounts added
+     *         later do not appear in it, so it can be iterated safely while others are added.
+     */
     public List<Account> getAccounts() {
         // Return an unmodifiable view to prevent external modification
-        return Collections.unmodifiableList(accounts);
+        return Collections.unmodifiableList(Arrays.asList(slots.all));
     }
 
     // Utility to get a customer's full name
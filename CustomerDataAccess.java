@@ -2,6 +2,10 @@ package com.bankingsystem;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Interface defining the necessary methods for retrieving and managing Customer data.
@@ -22,10 +26,63 @@ public interface CustomerDataAccess {
      */
     List<Customer> getAllCustomers();
 
+    /**
+     * Performs an action for every customer without copying the customer collection.
+     * Customers added or updated during the walk may or may not be seen.
+     * @param action The action to perform on each customer.
+     */
+    void forEachCustomer(Consumer<? super Customer> action);
+
+    /**
+     * A splittable iterator over all customers, suitable for parallel streams.
+     * It is weakly consistent: it tolerates concurrent updates and does not copy the book.
+     * @return A Spliterator over all customers.
+     */
+    Spliterator<Customer> customerSpliterator();
+
+    /**
+     * Streams all customers from customerSpliterator(); call parallel() on the result to
+     * process them on the common fork/join pool.
+     * @return A sequential Stream of all customers.
+     */
+    default Stream<Customer> customers() {
+        return StreamSupport.stream(customerSpliterator(), false);
+    }
+
+    /**
+     * Adds a new customer together with the accounts they already hold.
+     * @param customer The new customer; neither their code nor any of their account numbers may be in use.
+     * @return True if the customer was added, false otherwise.
+     */
+    boolean addCustomer(Customer customer);
+
     /**
      * Updates an existing customer record.
      * @param customer The Customer object containing the updated data.
      * @return True if the update was successful, false otherwise.
      */
     boolean updateCustomer(Customer customer);
-}
\ No newline at end of file
+
+    /**
+     * Opens a new account for an existing customer and adds it to the account indexes.
+     * @param customer The customer who will own the account.
+     * @param account The new account; its account number must not already be in use.
+     * @return True if the account was added, false otherwise.
+     */
+    boolean addAccount(Customer customer, Account account);
+
+    /**
+     * Finds an account by its account number (e.g. "C2002"), whichever customer owns it.
+     * @param accountNumber The account number to look up.
+     * @return An Optional containing the Account if found, or empty otherwise.
+     */
+    Optional<Account> findAccountByNumber(String accountNumber);
+
+    /**
+     * Finds an account by its encoded id without hashing a String (see AccountId and Account.getId()).
+     * This is the allocation-free lookup for hot paths, so it returns null rather than an Optional.
+     * @param id The encoded account id.
+     * @return The Account, or null if there is none with that id.
+     */
+    Account findAccountById(long id);
+}
@@ -0,0 +1,106 @@
+package com.bankingsystem;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Closed-form daily compound interest used by lazily accruing accounts (see
+ * Account.accrueInterestTo). Instead of posting interest every day, an account
+ * remembers the day it last accrued and, when next touched, credits
+ * {@code balance * ((1 + r/365)^days - 1)} in one step.
+ *
+ * The growth factors {@code (1 + r/365)^d - 1} for d = 0..365 are computed once per
+ * rate and cached, so an accrual is a table lookup and a multiplication. Factors are
+ * kept as "growth minus one" (via expm1/log1p) so small daily rates do not lose
+ * precision to cancellation.
+ */
+public final class DailyAccrual {
+
+    public static final int DAYS_PER_YEAR = 365;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /** Cached growth table for one rate; final fields make the array safely published. */
+    private static final class Table {
+        final long annualRatePpm;
+        final double[] growth; // growth[d] = (1 + r/365)^d - 1
+
+        Table(long annualRatePpm) {
+            this.annualRatePpm = annualRatePpm;
+            this.growth = new double[DAYS_PER_YEAR + 1];
+            double logDaily = Math.log1p(annualRatePpm / (double) Money.RATE_SCALE / DAYS_PER_YEAR);
+            for (int d = 0; d <= DAYS_PER_YEAR; d++) {
+                growth[d] = Math.expm1(d * logDaily);
+            }
+        }
+    }
+
+    // Only a handful of distinct rates exist, so a copy-on-write array scanned linearly
+    // beats a map: no hashing and no boxed keys on the read path.
+    private static volatile Table[] tables = new Table[0];
+
+    private DailyAccrual() {
+        // Utility class
+    }
+
+    /**
+     * @return The current day as a UTC epoch day.
+     */
+    public static long today() {
+        return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param instant A point in time.
+     * @return The UTC epoch day containing it.
+     */
+    public static long epochDay(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Computes the interest earned by a constant balance over a number of days,
+     * compounded daily, rounded half-even to the cent.
+     * @param balanceCents The balance over the period, in cents; no interest is paid on balances at or below zero.
+     * @param annualRatePpm The annual rate in parts-per-million.
+     * @param days The number of whole days elapsed.
+     * @return The interest in cents.
+     */
+    public static long interestFor(long balanceCents, long annualRatePpm, long days) {
+        if (balanceCents <= 0 || annualRatePpm == 0 || days <= 0) {
+            return 0L;
+        }
+        double[] growth = tableFor(annualRatePpm).growth;
+        double g;
+        if (days <= DAYS_PER_YEAR) {
+            g = growth[(int) days];
+        } else {
+            // Whole years from the one-year factor, then the remaining days: (1+a)(1+b) - 1 = a + b + ab
+            double years = Math.expm1((days / DAYS_PER_YEAR) * Math.log1p(growth[DAYS_PER_YEAR]));
+            double rest = growth[(int) (days % DAYS_PER_YEAR)];
+            g = years + rest + years * rest;
+        }
+        return (long) Math.rint(balanceCents * g);
+    }
+
+    private static Table tableFor(long annualRatePpm) {
+        Table[] current = tables;
+        for (Table table : current) {
+            if (table.annualRatePpm == annualRatePpm) {
+                return table;
+            }
+        }
+        synchronized (DailyAccrual.class) {
+            for (Table table : tables) {
+                if (table.annualRatePpm == annualRatePpm) {
+                    return table;
+                }
+            }
+            Table table = new Table(annualRatePpm);
+            Table[] grown = Arrays.copyOf(tables, tables.length + 1);
+            grown[grown.length - 1] = table;
+            tables = grown;
+            return table;
+        }
+    }
+}
@@ -1,34 +1,66 @@
 package com.bankingsystem;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 
 /**
  * Mock data layer for the banking system, implementing CustomerDataAccess.
  * Uses the Singleton pattern.
  * This class now initializes specific Account objects using the new 'Savings' class name.
+ *
+ * Thread-safe: customers live in a ConcurrentHashMap, and the secondary account indexes
+ * are guarded by a StampedLock (lookups by id read optimistically, other lookups share the
+ * read lock; writes are rare).
  */
 public class Database implements CustomerDataAccess {
 
-    private static Database instance;
     private final Map<String, Customer> customerData;
 
+    // Secondary indexes, kept in step with customerData by putCustomer/removeFromIndexes
+    // under the write lock of indexLock.
+    // Accounts are indexed by their primitive id; the rare number that cannot be encoded
+    // (see AccountId) falls back to a String-keyed map.
+    private final LongAccountMap accountsById = new LongAccountMap();
+    private final Map<String, Account> unencodedAccounts = new HashMap<>();
+    private final StampedLock indexLock = new StampedLock();
+    // Serialises snapshot writers (the schedulers and shutdown), which share the temporary file
+    private final Object snapshotLock = new Object();
+    // Journal the snapshots are cut from (see recoverFromJournal), and the position the loaded
+    // snapshot was cut at; both guarded by snapshotLock
+    private TransactionJournal journal;
+    private long loadedJournalPosition = DatabaseSnapshot.NO_JOURNAL_POSITION;
+
     // Define a constant branch name for mock data initialization
     private static final String MOCK_BRANCH = "Central Branch";
 
+    // Binary snapshot written on shutdown and loaded on startup (see DatabaseSnapshot)
+    private static final Path SNAPSHOT_FILE = Paths.get("bank.snapshot");
+
     private Database() {
-        this.customerData = new HashMap<>();
-        initializeMockData();
+        this.customerData = new ConcurrentHashMap<>();
+        if (!loadSnapshot()) {
+            initializeMockData();
+        }
+    }
+
+    // Initialization-on-demand holder: created on first use and safely published by class initialization
+    private static final class Holder {
+        static final Database INSTANCE = new Database();
     }
 
     public static Database getInstance() {
-        if (instance == null) {
-            instance = new Database();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -44,70 +76,168 @@ public class Database implements CustomerDataAccess {
         c1.addAccount(new ChequeAccount("C1001", 1250.75, 500.00, MOCK_BRANCH));
         // InvestmentAccount constructor now requires branch
         c1.addAccount(new InvestmentAccount("I1001", 25000.00, 0.04, MOCK_BRANCH));
-        customerData.put(c1.getCustomerCode(), c1);
+        putCustomer(c1);
 
         // Customer 2: Jane Doe (Code: JDOE, Pass: 5678)
         Customer c2 = new Customer("Jane", "Doe", "05/15/1992", "987-654-3210", "jane@example.com", "JDOE", "5678");
         c2.addAccount(new Savings("S2002", 150.00, 0.01, MOCK_BRANCH));
         c2.addAccount(new ChequeAccount("C2002", 5000.00, 200.00, MOCK_BRANCH));
         c2.addAccount(new InvestmentAccount("I2002", 1000.00, 0.03, MOCK_BRANCH));
-        customerData.put(c2.getCustomerCode(), c2);
+        putCustomer(c2);
 
         // Customer 3: Alice Johnson (Code: AJOHN, Pass: pass)
         Customer c3 = new Customer("Alice", "Johnson", "11/20/1975", "555-123-4567", "alice@example.com", "AJOHN", "pass");
         c3.addAccount(new Savings("S3003", 10000.00, 0.015, MOCK_BRANCH));
         c3.addAccount(new ChequeAccount("C3003", 750.00, 100.00, MOCK_BRANCH));
         c3.addAccount(new InvestmentAccount("I3003", 50000.00, 0.045, MOCK_BRANCH));
-        customerData.put(c3.getCustomerCode(), c3);
+        putCustomer(c3);
 
         // Customer 4: Bob Williams (Code: BWILL, Pass: bob)
         Customer c4 = new Customer("Bob", "Williams", "03/10/2000", "555-987-6543", "bob@example.com", "BWILL", "bob");
         c4.addAccount(new Savings("S4004", 200.00, 0.01, MOCK_BRANCH));
         c4.addAccount(new ChequeAccount("C4004", 3500.00, 100.00, MOCK_BRANCH));
         c4.addAccount(new InvestmentAccount("I4004", 8000.00, 0.04, MOCK_BRANCH));
-        customerData.put(c4.getCustomerCode(), c4);
+        putCustomer(c4);
 
         // Customer 5: Cathy Brown (Code: CBROWN, Pass: secure)
         Customer c5 = new Customer("Cathy", "Brown", "07/25/1988", "555-555-5555", "cathy@example.com", "CBROWN", "secure");
         c5.addAccount(new Savings("S5005", 15000.00, 0.03, MOCK_BRANCH));
         c5.addAccount(new ChequeAccount("C5005", 200.50, 200.00, MOCK_BRANCH));
         c5.addAccount(new InvestmentAccount("I5005", 1200.00, 0.04, MOCK_BRANCH));
-        customerData.put(c5.getCustomerCode(), c5);
+        putCustomer(c5);
 
         // Customer 6: David Lee (Code: DLEE, Pass: 9876)
         Customer c6 = new Customer("David", "Lee", "12/03/1965", "555-666-7777", "david@example.com", "DLEE", "9876");
         c6.addAccount(new Savings("S6006", 75.00, 0.01, MOCK_BRANCH));
         c6.addAccount(new ChequeAccount("C6006", 1500.00, 50.00, MOCK_BRANCH));
         c6.addAccount(new InvestmentAccount("I6006", 60000.00, 0.06, MOCK_BRANCH));
-        customerData.put(c6.getCustomerCode(), c6);
+        putCustomer(c6);
 
         // Customer 7: Eva Martinez (Code: EMAR, Pass: mypass)
         Customer c7 = new Customer("Eva", "Martinez", "02/29/1996", "555-888-9999", "eva@example.com", "EMAR", "mypass");
         c7.addAccount(new Savings("S7007", 800.00, 0.02, MOCK_BRANCH));
         c7.addAccount(new ChequeAccount("C7007", 8500.00, 300.00, MOCK_BRANCH));
         c7.addAccount(new InvestmentAccount("I7007", 3500.00, 0.05, MOCK_BRANCH));
-        customerData.put(c7.getCustomerCode(), c7);
+        putCustomer(c7);
 
         // Customer 8: Frank Green (Code: FGREEN, Pass: admin)
         Customer c8 = new Customer("Frank", "Green", "06/18/1972", "555-111-2222", "frank@example.com", "FGREEN", "admin");
         c8.addAccount(new Savings("S8008", 3000.00, 0.02, MOCK_BRANCH));
         c8.addAccount(new ChequeAccount("C8008", 100.00, 50.00, MOCK_BRANCH));
         c8.addAccount(new InvestmentAccount("I8008", 45000.00, 0.06, MOCK_BRANCH));
-        customerData.put(c8.getCustomerCode(), c8);
+        putCustomer(c8);
 
         // Customer 9: Grace Hall (Code: GHALL, Pass: grace)
         Customer c9 = new Customer("Grace", "Hall", "09/01/1985", "555-333-4444", "grace@example.com", "GHALL", "grace");
         c9.addAccount(new Savings("S9009", 1200.00, 0.01, MOCK_BRANCH));
         c9.addAccount(new ChequeAccount("C9009", 620.00, 150.00, MOCK_BRANCH));
         c9.addAccount(new InvestmentAccount("I9009", 900.00, 0.03, MOCK_BRANCH));
-        customerData.put(c9.getCustomerCode(), c9);
+        putCustomer(c9);
 
         // Customer 10: Henry King (Code: HKING, Pass: king)
         Customer c10 = new Customer("Henry", "King", "04/04/1990", "555-777-8888", "henry@example.com", "HKING", "king");
         c10.addAccount(new Savings("S1010", 400.00, 0.01, MOCK_BRANCH));
         c10.addAccount(new ChequeAccount("C1010", 4000.00, 50.00, MOCK_BRANCH));
         c10.addAccount(new InvestmentAccount("I1010", 150000.00, 0.07, MOCK_BRANCH));
-        customerData.put(c10.getCustomerCode(), c10);
+        putCustomer(c10);
+    }
+
+    // --- Index maintenance ---
+
+    /**
+     * Stores a customer and indexes all of their accounts.
+     * Callers hold the write lock (or run in the constructor, before publication).
+     */
+    private void putCustomer(Customer customer) {
+        customerData.put(customer.getCustomerCode(), customer);
+        int duePeriod = InterestScheduler.duePeriod();
+        for (Account account : customer.getAccounts()) {
+            indexAccount(account, duePeriod);
+        }
+    }
+
+    /**
+     * Indexes an account and starts its interest periods if it has none yet (a new account,
+     * or one loaded from a snapshot saved before periods were), so it is not owed any month
+     * that ended before now.
+     */
+    private void indexAccount(Account account, int duePeriod) {
+        account.startInterestPeriods(duePeriod);
+        if (account.getId() != AccountId.NONE) {
+            accountsById.put(account.getId(), account);
+        } else {
+            unencodedAccounts.put(account.getAccountNumber(), account);
+        }
+    }
+
+    private void removeFromIndexes(Customer customer) {
+        for (Account account : customer.getAccounts()) {
+            if (account.getId() != AccountId.NONE) {
+                accountsById.remove(account.getId());
+            } else {
+                unencodedAccounts.remove(account.getAccountNumber());
+            }
+        }
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Restores all customers from the snapshot file, if there is one.
+     * @return true if the snapshot was loaded, false if there is none or it could not be read.
+     */
+    private boolean loadSnapshot() {
+        if (!Files.exists(SNAPSHOT_FILE)) {
+            return false;
+        }
+        try {
+            for (Customer customer : DatabaseSnapshot.load(SNAPSHOT_FILE)) {
+                putCustomer(customer);
+            }
+            loadedJournalPosition = DatabaseSnapshot.journalPosition(SNAPSHOT_FILE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not load database snapshot, using mock data: " + e.getMessage());
+            customerData.clear();
+            accountsById.clear();
+            unencodedAccounts.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Applies the journal records written after the loaded snapshot was cut, so changes made
+     * since the last snapshot survive a crash, and cuts every later snapshot from {@code journal}.
+     * Call once at startup, before any balance can change. Replaying is idempotent, so calling
+     * it again is harmless. With mock data or a snapshot from before journal positions were
+     * saved there is nothing to replay.
+     * @param journal The application's journal.
+     * @return The number of records replayed.
+     */
+    public long recoverFromJournal(TransactionJournal journal) {
+        synchronized (snapshotLock) {
+            this.journal = journal;
+            return DatabaseSnapshot.replay(journal, loadedJournalPosition,
+                    number -> findAccountByNumber(number).orElse(null));
+        }
+    }
+
+    /**
+     * Writes a snapshot of all customers and accounts to disk without blocking any transaction.
+     * Once recoverFromJournal has attached the journal, the snapshot is cut at a journal position
+     * and the records after it restore whatever the capture missed (see DatabaseSnapshot).
+     * @return true if the snapshot was written successfully.
+     */
+    public boolean saveSnapshot() {
+        synchronized (snapshotLock) {
+            try {
+                DatabaseSnapshot.write(SNAPSHOT_FILE, getAllCustomers(), journal);
+                return true;
+            } catch (IOException e) {
+                System.err.println("Could not save database snapshot: " + e.getMessage());
+                return false;
+            }
+        }
     }
 
     // Database methods remain the same...
@@ -117,17 +247,139 @@ public class Database implements CustomerDataAccess {
         return Optional.ofNullable(customerData.get(customerCode));
     }
 
+    /**
+     * Copies every customer into a new list. Prefer forEachCustomer or customerSpliterator
+     * for walking the whole book; they do not copy.
+     */
     @Override
     public List<Customer> getAllCustomers() {
         return new ArrayList<>(customerData.values());
     }
 
+    @Override
+    public void forEachCustomer(Consumer<? super Customer> action) {
+        customerData.values().forEach(action);
+    }
+
+    /**
+     * The map's own concurrent spliterator: weakly consistent, never throws
+     * ConcurrentModificationException, and splits for parallel streams.
+     */
+    @Override
+    public Spliterator<Customer> customerSpliterator() {
+        return customerData.values().spliterator();
+    }
+
+    @Override
+    public boolean addCustomer(Customer customer) {
+        long stamp = indexLock.writeLock();
+        try {
+            if (customerData.containsKey(customer.getCustomerCode())) {
+                System.err.println("Cannot add customer: code " + customer.getCustomerCode() + " already exists.");
+                return false;
+            }
+            for (Account account : customer.getAccounts()) {
+                if (lookupByNumber(account.getAccountNumber()) != null) {
+                    System.err.println("Cannot add customer: account number " + account.getAccountNumber() + " already exists.");
+                    return false;
+                }
+            }
+            putCustomer(customer);
+            return true;
+        } finally {
+            indexLock.unlockWrite(stamp);
+        }
+    }
+
     @Override
     public boolean updateCustomer(Customer customer) {
-        if (customerData.containsKey(customer.getCustomerCode())) {
-            customerData.put(customer.getCustomerCode(), customer);
+        long stamp = indexLock.writeLock();
+        try {
+            Customer existing = customerData.get(customer.getCustomerCode());
+            if (existing != null) {
+                for (Account account : customer.getAccounts()) {
+                    Account indexed = lookupByNumber(account.getAccountNumber());
+                    if (indexed != null && !holdsAccount(existing, indexed)) {
+                        System.err.println("Cannot update customer: account number " + account.getAccountNumber()
+                                + " belongs to another customer.");
+                        return false;
+                    }
+                }
+                // Re-index from scratch: the updated customer may hold a different set of accounts
+                removeFromIndexes(existing);
+                putCustomer(customer);
+                return true;
+            }
+            return false;
+        } finally {
+            indexLock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addAccount(Customer customer, Account account) {
+        long stamp = indexLock.writeLock();
+        try {
+            if (customerData.get(customer.getCustomerCode()) != customer) {
+                System.err.println("Cannot add account: customer " + customer.getCustomerCode() + " is not in the database.");
+                return false;
+            }
+            if (lookupByNumber(account.getAccountNumber()) != null) {
+                System.err.println("Cannot add account: account number " + account.getAccountNumber() + " already exists.");
+                return false;
+            }
+            customer.addAccount(account);
+            indexAccount(account, InterestScheduler.duePeriod());
             return true;
+        } finally {
+            indexLock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Account> findAccountByNumber(String accountNumber) {
+        long id = AccountId.encode(accountNumber);
+        if (id != AccountId.NONE) {
+            return Optional.ofNullable(findAccountById(id));
+        }
+        long stamp = indexLock.readLock();
+        try {
+            return Optional.ofNullable(unencodedAccounts.get(accountNumber));
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Reads the index optimistically, without taking the lock, and takes the read lock only
+     * if a writer changed the index during the read.
+     */
+    @Override
+    public Account findAccountById(long id) {
+        long stamp = indexLock.tryOptimisticRead();
+        Account account = accountsById.get(id);
+        if (indexLock.validate(stamp)) {
+            return account;
+        }
+        stamp = indexLock.readLock();
+        try {
+            return accountsById.get(id);
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+    }
+
+    private static boolean holdsAccount(Customer customer, Account account) {
+        for (Account held : customer.getAccounts()) {
+            if (held == account) {
+                return true;
+            }
         }
         return false;
     }
+
+    private Account lookupByNumber(String accountNumber) {
+        long id = AccountId.encode(accountNumber);
+        return id != AccountId.NONE ? accountsById.get(id) : unencodedAccounts.get(accountNumber);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,432 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Compact binary snapshot of all customers and their accounts, used by Database to
+ * survive restarts.
+ *
+ * A snapshot is cut at a position in the TransactionJournal. The position is read first,
+ * then the balances are copied in one pass without blocking or accruing anything, so a
+ * transfer running meanwhile may be captured debited but not yet credited. Every journaled
+ * change is recorded after it is made (see TransactionJournal.runOrdered), so such a change
+ * has records at or after the position: on restart, {@link #replay} applies the records from
+ * the position onwards and the two halves meet again. Before the snapshot is installed the
+ * journal is forced up to the end of any change still in flight, so those records cannot be
+ * lost while the snapshot survives. The snapshot is written to a temporary file and atomically renamed.
+ *
+ * Customers are stored in fixed-size chunks with an offset table in the header, so
+ * loading maps the file read-only and decodes all chunks in parallel.
+ *
+ * File layout (little-endian):
+ * <pre>
+ * int magic, int version, long createdMillis, int customerCount, int chunkCount,
+ * long journalPosition (version 5+; -1 if the snapshot was not cut from a journal)
+ * long[chunkCount] chunk offsets
+ * chunks of customer records:
+ *   7 strings (first/last name, dob, phone, email, code, password),
+ *   int accountCount (an unsigned byte before version 4),
+ *   per account: byte type code, string number, string branch, long balance cents, long parameter,
+ *   long last accrual day (version 2+), int last interest period (version 3+),
+ *   long last fee day (version 6+)
+ *   (parameter = annual rate ppm for Savings/Investment, overdraft limit cents for Cheque;
+ *   last accrual day = UTC epoch day for accounts on daily accrual, Long.MIN_VALUE otherwise;
+ *   last interest period = last period posted by the InterestScheduler, Integer.MIN_VALUE if none;
+ *   last fee day = epoch day of the last end-of-day fee charged, Long.MIN_VALUE if none)
+ * strings are an unsigned short byte length followed by UTF-8 bytes
+ * </pre>
+ */
+public final class DatabaseSnapshot {
+
+    private static final int MAGIC = 0x424B534E; // "BKSN"
+    private static final int VERSION = 6;
+    private static final int FIRST_VERSION_WITH_ACCRUAL = 2;
+    private static final int FIRST_VERSION_WITH_INTEREST_PERIOD = 3;
+    private static final int FIRST_VERSION_WITH_INT_ACCOUNT_COUNT = 4;
+    private static final int FIRST_VERSION_WITH_JOURNAL_POSITION = 5;
+    private static final int FIRST_VERSION_WITH_FEE_DAY = 6;
+    private static final int CUSTOMERS_PER_CHUNK = 1024;
+    private static final int LEGACY_HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final int HEADER_SIZE = LEGACY_HEADER_SIZE + 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /** Journal position of a snapshot that was not cut from a journal (or predates version 5). */
+    public static final long NO_JOURNAL_POSITION = -1L;
+
+    private DatabaseSnapshot() {
+        // Utility class
+    }
+
+    // --- Writing ---
+
+    /**
+     * Writes a snapshot of {@code customers} to {@code file}, replacing it atomically, that is
+     * not cut from a journal: nothing is replayed on top of it when it is loaded.
+     * @param file The snapshot file.
+     * @param customers The customers to save (typically a copy from getAllCustomers()).
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public static void write(Path file, List<Customer> customers) throws IOException {
+        write(file, customers, null);
+    }
+
+    /**
+     * Writes a snapshot of {@code customers} to {@code file}, replacing it atomically.
+     * @param file The snapshot file.
+     * @param customers The customers to save (typically a copy from getAllCustomers()).
+     * @param journal The journal every change to these accounts is recorded in, or null.
+     * @throws IOException if the snapshot or the journal cannot be written.
+     */
+    public static void write(Path file, List<Customer> customers, TransactionJournal journal) throws IOException {
+        // Every change recorded before this position is complete, so the capture below includes it
+        long journalPosition = journal == null ? NO_JOURNAL_POSITION : journal.size();
+        CapturedAccounts[] captured = capture(customers);
+        if (journal != null) {
+            // Taking the append lock waits for any change the capture caught half-way to record itself;
+            // those records must be on disk before a snapshot that depends on them is installed
+            journal.runOrdered(journal::size);
+            journal.sync();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int chunkCount = (customers.size() + CUSTOMERS_PER_CHUNK - 1) / CUSTOMERS_PER_CHUNK;
+        long[] chunkOffsets = new long[chunkCount];
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            // Reserve the header and offset table; they are filled in once the chunk offsets are known
+            long filePosition = HEADER_SIZE + 8L * chunkCount;
+            channel.position(filePosition);
+
+            for (int i = 0; i < customers.size(); i++) {
+                if (i % CUSTOMERS_PER_CHUNK == 0) {
+                    chunkOffsets[i / CUSTOMERS_PER_CHUNK] = filePosition + buffer.position();
+                }
+                int encodedSize = maxEncodedSize(customers.get(i), captured[i]);
+                if (buffer.remaining() < encodedSize) {
+                    filePosition += drain(channel, buffer);
+                    if (buffer.capacity() < encodedSize) {
+                        // A customer with a very large number of accounts: grow the buffer for it
+                        buffer = ByteBuffer.allocateDirect(encodedSize).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                }
+                encodeCustomer(buffer, customers.get(i), captured[i]);
+            }
+            drain(channel, buffer);
+
+            // Header and chunk offset table go in the space reserved at the start
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 8 * chunkCount).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis())
+                    .putInt(customers.size()).putInt(chunkCount).putLong(journalPosition);
+            for (long offset : chunkOffsets) {
+                header.putLong(offset);
+            }
+            header.flip();
+            writeFully(channel, header, 0L);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The account state of one customer as of the cut, in the customer's account order.
+     */
+    private static final class CapturedAccounts {
+        final Account[] accounts;
+        final long[] balances;
+        final long[] lastAccrualDays;
+        final int[] lastInterestPeriods;
+        final long[] lastFeeDays;
+
+        CapturedAccounts(Account[] accounts) {
+            this.accounts = accounts;
+            this.balances = new long[accounts.length];
+            this.lastAccrualDays = new long[accounts.length];
+            this.lastInterestPeriods = new int[accounts.length];
+            this.lastFeeDays = new long[accounts.length];
+        }
+    }
+
+    /**
+     * Reads the balance, interest and fee state of every account, copying primitives only.
+     * Nothing is locked and nothing is written: in particular the raw balance is read, so
+     * reading it does not credit daily accrual the way getBalanceCents() would.
+     */
+    private static CapturedAccounts[] capture(List<Customer> customers) {
+        CapturedAccounts[] captured = new CapturedAccounts[customers.size()];
+        for (int i = 0; i < captured.length; i++) {
+            CapturedAccounts state = new CapturedAccounts(customers.get(i).getAccounts().toArray(new Account[0]));
+            for (int a = 0; a < state.accounts.length; a++) {
+                Account account = state.accounts[a];
+                // An accrual publishes its new day only after crediting the interest, so an unchanged
+                // day around the balance read means the pair belongs together
+                long day;
+                long balance;
+                do {
+                    day = account.getLastAccrualDay();
+                    balance = account.getRawBalanceCents();
+                } while (day != account.getLastAccrualDay());
+                state.balances[a] = balance;
+                state.lastAccrualDays[a] = day;
+                // A posting claims the period before crediting, so one caught mid-way is saved as done
+                // without its interest; its INTEREST record (after the journal position) restores both
+                state.lastInterestPeriods[a] = account.getLastInterestPeriod();
+                // Likewise a fee day is claimed before the fee is debited, and its FEE record restores both
+                state.lastFeeDays[a] = account.getLastFeeDay();
+            }
+            captured[i] = state;
+        }
+        return captured;
+    }
+
+    private static void encodeCustomer(ByteBuffer buffer, Customer customer, CapturedAccounts captured) {
+        putString(buffer, customer.getFirstName());
+        putString(buffer, customer.getLastName());
+        putString(buffer, customer.getDateOfBirth());
+        putString(buffer, customer.getPhoneNumber());
+        putString(buffer, customer.getEmail());
+        putString(buffer, customer.getCustomerCode());
+        putString(buffer, customer.getPassword());
+
+        Account[] accounts = captured.accounts;
+        buffer.putInt(accounts.length);
+        for (int a = 0; a < accounts.length; a++) {
+            Account account = accounts[a];
+            AccountType type = AccountType.of(account);
+            buffer.put((byte) type.getCode());
+            putString(buffer, account.getAccountNumber());
+            putString(buffer, account.getBranch());
+            buffer.putLong(captured.balances[a]);
+            buffer.putLong(type == AccountType.CHEQUE
+                    ? ((ChequeAccount) account).getOverdraftLimitCents()
+                    : account.getAnnualRatePpm());
+            buffer.putLong(captured.lastAccrualDays[a]);
+            buffer.putInt(captured.lastInterestPeriods[a]);
+            buffer.putLong(captured.lastFeeDays[a]);
+        }
+    }
+
+    /**
+     * Upper bound on the encoded size of a customer (UTF-8 needs at most 3 bytes per char).
+     */
+    private static int maxEncodedSize(Customer customer, CapturedAccounts captured) {
+        int size = 4 + maxStringSize(customer.getFirstName()) + maxStringSize(customer.getLastName())
+                + maxStringSize(customer.getDateOfBirth()) + maxStringSize(customer.getPhoneNumber())
+                + maxStringSize(customer.getEmail()) + maxStringSize(customer.getCustomerCode())
+                + maxStringSize(customer.getPassword());
+        for (Account account : captured.accounts) {
+            size += 1 + maxStringSize(account.getAccountNumber()) + maxStringSize(account.getBranch()) + 36;
+        }
+        return size;
+    }
+
+    private static int maxStringSize(String value) {
+        return 2 + 3 * (value == null ? 0 : value.length());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    private static long drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // --- Loading ---
+
+    /**
+     * Loads a snapshot by mapping the file and decoding its chunks in parallel.
+     * @param file The snapshot file.
+     * @return The customers, in the order they were written.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static List<Customer> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            int version = readVersion(mapped, file);
+            int customerCount = mapped.getInt(16);
+            int chunkCount = mapped.getInt(20);
+            int headerSize = version >= FIRST_VERSION_WITH_JOURNAL_POSITION ? HEADER_SIZE : LEGACY_HEADER_SIZE;
+
+            Customer[] customers = new Customer[customerCount];
+            try {
+                IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                    // Each chunk decodes from its own view so positions do not interfere
+                    ByteBuffer view = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                    view.position((int) mapped.getLong(headerSize + 8 * chunk));
+                    int first = chunk * CUSTOMERS_PER_CHUNK;
+                    int last = Math.min(first + CUSTOMERS_PER_CHUNK, customerCount);
+                    for (int i = first; i < last; i++) {
+                        customers[i] = decodeCustomer(view, version);
+                    }
+                });
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt database snapshot: " + file, e);
+            }
+            return Arrays.asList(customers);
+        }
+    }
+
+    /**
+     * Reads the journal position a snapshot was cut at, the position {@link #replay} starts from.
+     * @param file The snapshot file.
+     * @return The journal position, or NO_JOURNAL_POSITION if the snapshot was not cut from a journal.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static long journalPosition(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is full or the file ends
+            }
+            header.flip();
+            int version = readVersion(header, file);
+            return version >= FIRST_VERSION_WITH_JOURNAL_POSITION ? header.getLong(LEGACY_HEADER_SIZE) : NO_JOURNAL_POSITION;
+        }
+    }
+
+    private static int readVersion(ByteBuffer header, Path file) throws IOException {
+        if (header.limit() < LEGACY_HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a database snapshot: " + file);
+        }
+        int version = header.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        }
+        if (version >= FIRST_VERSION_WITH_JOURNAL_POSITION && header.limit() < HEADER_SIZE) {
+            throw new IOException("Truncated database snapshot: " + file);
+        }
+        return version;
+    }
+
+    private static Customer decodeCustomer(ByteBuffer buffer, int version) {
+        Customer customer = new Customer(getString(buffer), getString(buffer), getString(buffer),
+                getString(buffer), getString(buffer), getString(buffer), getString(buffer));
+
+        int accountCount = version >= FIRST_VERSION_WITH_INT_ACCOUNT_COUNT ? buffer.getInt() : buffer.get() & 0xFF;
+        for (int a = 0; a < accountCount; a++) {
+            AccountType type = AccountType.fromCode((char) buffer.get());
+            String number = getString(buffer);
+            String branch = getString(buffer);
+            long balanceCents = buffer.getLong();
+            long parameter = buffer.getLong();
+            long lastAccrualDay = version >= FIRST_VERSION_WITH_ACCRUAL ? buffer.getLong() : Long.MIN_VALUE;
+            int lastInterestPeriod = version >= FIRST_VERSION_WITH_INTEREST_PERIOD ? buffer.getInt() : Account.NO_INTEREST_PERIOD;
+            long lastFeeDay = version >= FIRST_VERSION_WITH_FEE_DAY ? buffer.getLong() : Account.NO_FEE_DAY;
+
+            Account account;
+            if (type == AccountType.SAVINGS) {
+                account = new Savings(number, branch, balanceCents, parameter);
+            } else if (type == AccountType.CHEQUE) {
+                account = new ChequeAccount(number, branch, balanceCents, parameter);
+            } else if (type == AccountType.INVESTMENT) {
+                account = new InvestmentAccount(number, branch, balanceCents, parameter);
+            } else {
+                throw new IllegalStateException("Unknown account type in snapshot for account " + number);
+            }
+            account.restoreLastAccrualDay(lastAccrualDay);
+            account.restoreLastInterestPeriod(lastInterestPeriod);
+            account.restoreLastFeeDay(lastFeeDay);
+            customer.addAccount(account);
+        }
+        return customer;
+    }
+
+    // --- Replaying the journal ---
+
+    /**
+     * Brings accounts loaded from a snapshot up to date with the journal records written from the
+     * snapshot's journal position onwards. Each record carries the balance its change produced and
+     * records are in the order the changes were made, so the balance is simply set from each record
+     * in turn; replaying the same records twice gives the same result. INTEREST records also restore
+     * the period they posted, FEE records the day they were charged for, and accounts on daily
+     * accrual resume accruing from the record's day.
+     *
+     * A transfer appends its TRANSFER_OUT and TRANSFER_IN together, so a TRANSFER_OUT not followed
+     * by a TRANSFER_IN lost it in a crash. Neither half is applied: the transfer was still being
+     * recorded when the application stopped, after the snapshot was cut, so the snapshot holds
+     * neither half either.
+     * @param journal The journal the snapshot was cut from.
+     * @param fromPosition The snapshot's journal position (see {@link #journalPosition(Path)}).
+     * @param accounts Finds a loaded account by number, or returns null if there is none.
+     * @return The number of records applied.
+     */
+    public static long replay(TransactionJournal journal, long fromPosition, Function<String, Account> accounts) {
+        if (fromPosition == NO_JOURNAL_POSITION) {
+            return 0L;
+        }
+        long end = journal.size();
+        JournalRecord record = new JournalRecord();
+        JournalRecord next = new JournalRecord();
+        long applied = 0L;
+        long unknown = 0L;
+        for (long position = fromPosition; position < end; position++) {
+            journal.read(position, record);
+            if (record.getType() == TransactionType.TRANSFER_OUT
+                    && (position + 1 == end || journal.read(position + 1, next).getType() != TransactionType.TRANSFER_IN)) {
+                continue;
+            }
+            Account account = accounts.apply(record.getAccountNumber());
+            if (account == null) {
+                unknown++;
+                continue;
+            }
+            account.restoreBalanceCents(record.getBalanceAfterCents());
+            if (account.isDailyAccrualEnabled()) {
+                // The change accrued up to its own day first, so the balance is current as of that day
+                account.restoreLastAccrualDay(DailyAccrual.epochDay(Instant.ofEpochMilli(record.getTimestamp())));
+            }
+            if (record.getType() == TransactionType.INTEREST && record.getPeriod() > account.getLastInterestPeriod()) {
+                account.restoreLastInterestPeriod(record.getPeriod());
+            }
+            if (record.getType() == TransactionType.FEE && record.getPeriod() > account.getLastFeeDay()) {
+                account.restoreLastFeeDay(record.getPeriod());
+            }
+            applied++;
+        }
+        if (unknown != 0) {
+            System.err.println("Journal replay skipped " + unknown + " records for accounts not in the snapshot.");
+        }
+        return applied;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,22 +1,17 @@
 package com.bankingsystem;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
-public class DepositPageController {
+public class DepositPageController implements SceneNavigator.Refreshable, AccountContextAware {
 
     // --- FXML Element Connections ---
     @FXML
@@ -31,17 +26,34 @@ public class DepositPageController {
     @FXML
     private Label messageLabel; // Used for success/error feedback
 
+    @FXML
+    private Button doneButton; // Disabled while a submitted operation is in flight
+
     // --- Account State ---
     private Account sourceAccount;
     private String sourceAccountType;
 
 
+    /**
+     * Clears the previous visit's input and status each time the (cached) page is shown.
+     */
+    @Override
+    public void refresh() {
+        amountField.clear();
+        numberField.clear();
+        depositToField.clear();
+        messageLabel.setText("");
+        doneButton.setDisable(false);
+    }
+
+
     /**
      * REQUIRED: This method is called by the main account controllers (Savings, Investment, etc.)
-     * to pass the specific account data to this page. Signature matches the reflection call (Account, String).
+     * to pass the specific account data to this page (see AccountContextAware).
      * @param account The specific Account instance selected for deposit.
      * @param accountType The type of the account (e.g., "Savings", "Investment").
      */
+    @Override
     public void setSourceAccount(Account account, String accountType) {
         this.sourceAccount = account;
         this.sourceAccountType = accountType;
@@ -84,73 +96,61 @@ public class DepositPageController {
                 return;
             }
 
-            // Perform the deposit on the actual Account object
-            sourceAccount.deposit(amount);
+            // --- Perform and record the deposit off the FX thread ---
+            String phone = numberField.getText().trim().isEmpty() ? "N/A" : numberField.getText().trim();
+            messageLabel.setText("Processing deposit...");
+            messageLabel.setTextFill(javafx.scene.paint.Color.GRAY);
 
-            // --- Logging the Successful Transaction ---
-            String filename = getLogFileName(sourceAccount);
+            doneButton.setDisable(true); // one operation per click until this one completes
+            TransactionService.getInstance().deposit(sourceAccount, Money.fromAmount(amount), phone)
+                    .whenComplete((receipt, error) -> Platform.runLater(() -> showDepositResult(amount, receipt, error)));
 
-            // Get current timestamp
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
-            LocalDateTime now = LocalDateTime.now();
-            String timestamp = dtf.format(now);
-
-            // Format the transaction record, including the updated balance
-            String transactionRecord = String.format(
-                    "[%s] DEPOSIT | Account Type: %s | Account: %s | Amount: $%.2f | New Balance: $%,.2f | Phone: %s\n",
-                    timestamp,
-                    sourceAccountType,
-                    sourceAccount.getAccountNumber(),
-                    amount,
-                    sourceAccount.getBalance(), // Use the updated balance for logging
-                    numberField.getText().trim().isEmpty() ? "N/A" : numberField.getText()
-            );
+        } catch (NumberFormatException e) {
+            // Handle invalid input format
+            messageLabel.setText("Error: Invalid amount entered. Please enter a valid number (e.g., 100.00).");
+            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+        }
+    }
 
-            // Using try-with-resources with BufferedWriter for efficient appending
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(filename, true))) {
-                bw.write(transactionRecord);
+    /**
+     * Shows the outcome of a deposit. Runs on the FX thread.
+     */
+    private void showDepositResult(double amount, TransactionService.Receipt receipt, Throwable error) {
+        doneButton.setDisable(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            messageLabel.setText(cause instanceof RejectedExecutionException
+                    ? "The system is busy. Please try again in a moment."
+                    : "System Error: Deposit could not be processed.");
+            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+            return;
+        }
 
+        switch (receipt.getStatus()) {
+            case SUCCESS:
                 // 3. Success Feedback
-                messageLabel.setText(String.format("Successfully deposited $%.2f to %s Account. New Balance: $%,.2f. Record saved to %s.",
+                messageLabel.setText(String.format("Successfully deposited $%.2f to %s Account. New Balance: $%,.2f. Record saved to the transaction journal.",
                         amount,
                         sourceAccountType,
-                        sourceAccount.getBalance(),
-                        filename));
+                        Money.toAmount(receipt.getBalanceAfterCents())));
                 messageLabel.setTextFill(javafx.scene.paint.Color.web("#38a169"));
 
                 // Clear fields after successful transaction
                 amountField.clear();
                 numberField.clear();
-
-            } catch (IOException e) {
-                // Handle file writing errors
-                e.printStackTrace();
+                break;
+            case NOT_RECORDED:
+                // Handle journal writing errors
                 messageLabel.setText("System Error: Deposit succeeded, but failed to save transaction record.");
                 messageLabel.setTextFill(javafx.scene.paint.Color.ORANGE);
-            }
-
-        } catch (NumberFormatException e) {
-            // Handle invalid input format
-            messageLabel.setText("Error: Invalid amount entered. Please enter a valid number (e.g., 100.00).");
-            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
-        }
-    }
-
-    /**
-     * Helper to determine the transaction log file based on account type.
-     */
-    private String getLogFileName(Account account) {
-        if (account instanceof Savings) {
-            return "savings.txt";
-        } else if (account instanceof InvestmentAccount) {
-            return "investment.txt";
-        } else if (account instanceof ChequeAccount) {
-            return "cheque.txt";
+                break;
+            default:
+                messageLabel.setText("Error: Amount must be greater than zero.");
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                break;
         }
-        return "transactions_log.txt"; // Default fallback
     }
 
-
     /**
      * Handles navigation back to the original Account Page using the stored account type.
      */
@@ -175,15 +175,7 @@ public class DepositPageController {
         }
 
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
+            SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,277 @@
+package com.bankingsystem;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, structured logger for account events (deposits, withdrawals, interest).
+ *
+ * Callers on the money path copy a few primitives and an existing String reference into a
+ * preallocated slot of a bounded ring buffer and return; nothing is formatted, boxed or
+ * allocated and no lock is taken. A single daemon writer thread drains the ring, renders
+ * each event as one {@code key=value} line and writes INFO events to System.out and WARN
+ * events to System.err, as the accounts did before. With nothing to write, the writer parks
+ * until a producer publishes an event and wakes it, so an idle logger uses no CPU.
+ *
+ * When the writer falls behind, the Policy decides what is lost: DROP discards new events
+ * only once the ring is full; SAMPLE additionally keeps just one in {@code sampleRate} INFO
+ * events once the ring is three-quarters full, so failures keep getting through. Lost events
+ * are counted and reported by the writer. The ring is configured with the system properties
+ * {@code bankingsystem.eventlog.capacity}, {@code bankingsystem.eventlog.policy} and
+ * {@code bankingsystem.eventlog.sampleRate}.
+ */
+public final class EventLogger {
+
+    /** What to do with new events while the writer cannot keep up. */
+    public enum Policy {
+        DROP,
+        SAMPLE
+    }
+
+    public enum Level {
+        INFO,
+        WARN
+    }
+
+    /**
+     * The kinds of event, each with a fixed level and the name of its optional detail
+     * field (left out of the line when the detail is 0).
+     */
+    public enum Type {
+        DEPOSITED(Level.INFO, null),
+        DEPOSIT_INVALID(Level.WARN, null),
+        WITHDRAWN(Level.INFO, "penalty"),
+        WITHDRAWAL_INVALID(Level.WARN, null),
+        INSUFFICIENT_FUNDS(Level.WARN, "penalty"),
+        OVERDRAFT_LIMIT_EXCEEDED(Level.WARN, "overdraftLimit"),
+        INTEREST_APPLIED(Level.INFO, "annualRatePpm"),
+        NO_INTEREST(Level.INFO, null);
+
+        private final Level level;
+        private final String detailKey;
+
+        Type(Level level, String detailKey) {
+            this.level = level;
+            this.detailKey = detailKey;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+    }
+
+    /** One preallocated ring slot; {@code sequence} says whose turn it is (producer or writer). */
+    private static final class Entry {
+        volatile long sequence;
+        Type type;
+        String accountNumber;
+        long amountCents;
+        long balanceCents;
+        long detail;
+        long timestampMillis;
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_SAMPLE_RATE = 16;
+    private static final long SHUTDOWN_DRAIN_MILLIS = 2000;
+
+    private final Entry[] ring;
+    private final int mask;
+    private final Policy policy;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim
+    private volatile long head;                       // next slot the writer reads
+    private volatile boolean closed;
+    private volatile boolean writerParked;            // set while the writer sleeps on an empty ring
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final Thread writer;
+
+    // --- Singleton Access ---
+
+    private static final class Holder {
+        static final EventLogger INSTANCE = new EventLogger(
+                Integer.getInteger("bankingsystem.eventlog.capacity", DEFAULT_CAPACITY),
+                Policy.valueOf(System.getProperty("bankingsystem.eventlog.policy", Policy.SAMPLE.name())),
+                Integer.getInteger("bankingsystem.eventlog.sampleRate", DEFAULT_SAMPLE_RATE),
+                System.out, System.err);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "event-logger-shutdown"));
+        }
+    }
+
+    public static EventLogger getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates a logger and starts its writer thread.
+     * @param capacity Ring size; rounded up to a power of two.
+     * @param policy What to do with new events while the writer cannot keep up.
+     * @param sampleRate Under SAMPLE, one in this many INFO events is kept once the ring is 3/4 full.
+     * @param out Stream for INFO events.
+     * @param err Stream for WARN events and loss reports.
+     */
+    EventLogger(int capacity, Policy policy, int sampleRate, PrintStream out, PrintStream err) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Entry();
+            ring[i].sequence = i;
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sampleThreshold = size - size / 4;
+        this.out = out;
+        this.err = err;
+        this.writer = new Thread(this::runWriter, "event-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // --- Logging ---
+
+    /**
+     * Logs an event without a detail field.
+     * @see #log(Type, String, long, long, long)
+     */
+    public boolean log(Type type, String accountNumber, long amountCents, long balanceCents) {
+        return log(type, accountNumber, amountCents, balanceCents, 0L);
+    }
+
+    /**
+     * Queues an event for the writer thread. Never blocks and does not allocate.
+     * @param type The kind of event.
+     * @param accountNumber The account the event belongs to.
+     * @param amountCents The amount involved, in cents.
+     * @param balanceCents The balance the event left (or found) the account with, in cents.
+     * @param detail The value of the type's detail field (penalty, overdraft limit or rate), if it has one.
+     * @return True if the event was queued, false if the policy dropped or sampled it out.
+     */
+    public boolean log(Type type, String accountNumber, long amountCents, long balanceCents, long detail) {
+        while (true) {
+            long position = tail.get();
+            Entry entry = ring[(int) (position & mask)];
+            long sequence = entry.sequence;
+            if (sequence < position || closed) {
+                dropped.increment(); // full: the writer has not released this slot yet
+                return false;
+            }
+            if (sequence > position) {
+                continue; // another producer claimed this position first
+            }
+            if (policy == Policy.SAMPLE && type.level == Level.INFO && position - head >= sampleThreshold
+                    && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                sampledOut.increment();
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                entry.type = type;
+                entry.accountNumber = accountNumber;
+                entry.amountCents = amountCents;
+                entry.balanceCents = balanceCents;
+                entry.detail = detail;
+                entry.timestampMillis = System.currentTimeMillis();
+                entry.sequence = position + 1; // volatile write publishes the slot to the writer
+                if (writerParked) {
+                    LockSupport.unpark(writer); // the ring was empty; wake the writer for this event
+                }
+                return true;
+            }
+        }
+    }
+
+    // --- Statistics ---
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    // --- Writer ---
+
+    /**
+     * Stops accepting events and waits (briefly) for the writer to drain what is queued.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_DRAIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        StringBuilder line = new StringBuilder(160);
+        long reportedLoss = 0L;
+        while (true) {
+            long position = head;
+            Entry entry = ring[(int) (position & mask)];
+            if (entry.sequence == position + 1) {
+                format(entry, line);
+                PrintStream stream = entry.type.level == Level.WARN ? err : out;
+                entry.accountNumber = null;
+                entry.sequence = position + ring.length; // hand the slot back to producers
+                head = position + 1;
+                stream.append(line);
+                continue;
+            }
+
+            // Ring is empty: flush, report losses, then idle
+            out.flush();
+            err.flush();
+            long loss = dropped.sum() + sampledOut.sum();
+            if (loss != reportedLoss) {
+                err.println("EventLogger: " + dropped.sum() + " events dropped, "
+                        + sampledOut.sum() + " sampled out under load so far");
+                reportedLoss = loss;
+            }
+            if (closed && tail.get() == head) {
+                return;
+            }
+            // Announce the park, then look once more: a producer that published before seeing the
+            // flag is caught by the re-check, and one that publishes after it will unpark us
+            writerParked = true;
+            if (entry.sequence != position + 1 && !closed) {
+                LockSupport.park(this);
+            }
+            writerParked = false;
+        }
+    }
+
+    private static void format(Entry entry, StringBuilder line) {
+        line.setLength(0);
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(entry.timestampMillis), line);
+        line.append(' ').append(entry.type.level)
+                .append(" event=").append(entry.type)
+                .append(" account=").append(entry.accountNumber)
+                .append(" amount=").append(Money.format(entry.amountCents))
+                .append(" balance=").append(Money.format(entry.balanceCents));
+        String detailKey = entry.type.detailKey;
+        if (detailKey != null && entry.detail != 0L) {
+            line.append(' ').append(detailKey).append('=');
+            if (entry.type == Type.INTEREST_APPLIED) {
+                line.append(entry.detail);
+            } else {
+                line.append(Money.format(entry.detail));
+            }
+        }
+        line.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,217 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End-of-day fee run over all accounts.
+ * Each account's fee rule ({@link Account#endOfDayFeeCents(long)}: the Savings
+ * minimum-balance fee and the Cheque overdraft fee) is evaluated in parallel fork/join
+ * chunks against the balance the account holds when the sweep reaches it (not a balance
+ * frozen at the end of the day), and the fee is debited with a CAS against the balance it
+ * was computed from, so a concurrent transaction simply causes a re-evaluation.
+ * Every fee charged is journaled as a FEE record, giving one auditable run instead of
+ * fees charged ad hoc on the withdraw path. Each chunk debits and appends its records as one
+ * step of the journal's order (see TransactionJournal.runOrdered), so recovery replays the
+ * fees in the order the balances changed.
+ *
+ * Before charging, the account's fee for the day is claimed (Account.claimFeeDay), and the
+ * FEE record carries that day, so the claim survives a crash together with the debit.
+ * A sweep can therefore be repeated for the same day: accounts already charged are skipped.
+ *
+ * The application runs the sweep once a day through the FeeSweepScheduler.
+ */
+public class FeeSweepEngine {
+
+    /**
+     * Summary of one sweep.
+     */
+    public static final class Result {
+        private final int accountsEvaluated;
+        private final int feesCharged;
+        private final long totalFeesCents;
+        private final long retries;
+
+        Result(int accountsEvaluated, int feesCharged, long totalFeesCents, long retries) {
+            this.accountsEvaluated = accountsEvaluated;
+            this.feesCharged = feesCharged;
+            this.totalFeesCents = totalFeesCents;
+            this.retries = retries;
+        }
+
+        public int getAccountsEvaluated() {
+            return accountsEvaluated;
+        }
+
+        public int getFeesCharged() {
+            return feesCharged;
+        }
+
+        public long getTotalFeesCents() {
+            return totalFeesCents;
+        }
+
+        /**
+         * @return How many fees had to be re-evaluated because the account changed during the sweep.
+         */
+        public long getRetries() {
+            return retries;
+        }
+    }
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final TransactionJournal journal;
+
+    /**
+     * @param pool The pool the chunks run on.
+     * @param journal Journal that receives a FEE record per fee charged, or null to skip journaling.
+     */
+    public FeeSweepEngine(ForkJoinPool pool, TransactionJournal journal) {
+        this.pool = pool;
+        this.journal = journal;
+    }
+
+    /**
+     * Sweeps every account of every customer in {@code dataAccess}.
+     * @param dataAccess The customers whose accounts are swept.
+     * @param day The day whose fees are charged.
+     * @return A summary of the sweep.
+     * @throws IOException if journaling is enabled and a FEE record cannot be written.
+     */
+    public Result runSweep(CustomerDataAccess dataAccess, LocalDate day) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        dataAccess.forEachCustomer(customer -> accounts.addAll(customer.getAccounts()));
+        return runSweep(accounts, day);
+    }
+
+    /**
+     * Evaluates the end-of-day fee rule of each account and charges the fees due for
+     * {@code day}, skipping accounts already charged for it.
+     * @param accounts The accounts to sweep.
+     * @param day The day whose fees are charged.
+     * @return A summary of the sweep.
+     * @throws IOException if journaling is enabled and a FEE record cannot be written.
+     */
+    public Result runSweep(List<? extends Account> accounts, LocalDate day) throws IOException {
+        Account[] refs = accounts.toArray(new Account[0]);
+        long[] fees = new long[refs.length];
+        AtomicLong retries = new AtomicLong();
+        AtomicReference<CompletableFuture<Long>> last = new AtomicReference<>();
+        try {
+            pool.invoke(new Chunk(this, refs, fees, day.toEpochDay(), retries, last, 0, refs.length));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (last.get() != null) {
+            last.get().join(); // group commit completes futures in position order
+        }
+
+        int charged = 0;
+        long total = 0;
+        for (long fee : fees) {
+            if (fee != 0L) {
+                charged++;
+                total += fee;
+            }
+        }
+        return new Result(refs.length, charged, total, retries.get());
+    }
+
+    /**
+     * Evaluates and charges the accounts in {@code [from, to)} for {@code epochDay},
+     * journaling each fee charged with the day it was charged for.
+     * @param last Receives the future of the most recently appended record.
+     * @throws IOException if a FEE record cannot be appended.
+     */
+    private void charge(Account[] refs, long[] fees, long epochDay, AtomicLong retries,
+            AtomicReference<CompletableFuture<Long>> last, int from, int to) throws IOException {
+        long localRetries = 0;
+        for (int i = from; i < to; i++) {
+            Account account = refs[i];
+            if (account.endOfDayFeeCents(account.getBalanceCents()) == 0L || !account.claimFeeDay(epochDay)) {
+                continue; // nothing due, or already charged for this day
+            }
+            while (true) {
+                long current = account.getBalanceCents();
+                long fee = account.endOfDayFeeCents(current);
+                if (fee == 0L) {
+                    break;
+                }
+                if (account.compareAndSetBalance(current, current - fee)) {
+                    fees[i] = fee;
+                    if (journal != null) {
+                        last.set(journal.append(TransactionType.FEE, account, fee, current - fee, null,
+                                account.getEndOfDayFeeDescription(), (int) epochDay));
+                    }
+                    break;
+                }
+                localRetries++;
+                Account.onContention();
+            }
+        }
+        if (localRetries != 0) {
+            retries.addAndGet(localRetries);
+        }
+    }
+
+    /**
+     * One fork/join chunk: splits until small enough, then evaluates and charges each account.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FeeSweepEngine engine;
+        private final Account[] refs;
+        private final long[] fees;
+        private final long epochDay;
+        private final AtomicLong retries;
+        private final AtomicReference<CompletableFuture<Long>> last;
+        private final int from;
+        private final int to;
+
+        Chunk(FeeSweepEngine engine, Account[] refs, long[] fees, long epochDay, AtomicLong retries,
+                AtomicReference<CompletableFuture<Long>> last, int from, int to) {
+            this.engine = engine;
+            this.refs = refs;
+            this.fees = fees;
+            this.epochDay = epochDay;
+            this.retries = retries;
+            this.last = last;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Chunk(engine, refs, fees, epochDay, retries, last, from, mid),
+                        new Chunk(engine, refs, fees, epochDay, retries, last, mid, to));
+                return;
+            }
+
+            try {
+                if (engine.journal == null) {
+                    engine.charge(refs, fees, epochDay, retries, last, from, to);
+                } else {
+                    engine.journal.runOrdered(() -> {
+                        engine.charge(refs, fees, epochDay, retries, last, from, to);
+                        return null;
+                    });
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bankingsystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the FeeSweepEngine once per day, after the day has ended, remembering the last
+ * day swept so a completed day is not swept again.
+ *
+ * A day's fees are charged at most once per account however often the sweep runs: each
+ * account claims the day before it is charged, and the FEE record carries the day, so the
+ * claim survives a crash with the debit (see FeeSweepEngine). The scheduler therefore
+ * sweeps first, then saves the Database snapshot, and only then records the day in a small
+ * state file, like the InterestScheduler's partition state. A crash or failure before that
+ * leaves the day pending and the next check retries it, charging only the accounts not yet
+ * charged.
+ *
+ * Days that ended while the application was not running are not swept retroactively;
+ * the sweep reads current balances, not the balances held on those days. Only the most
+ * recent day is swept.
+ */
+public class FeeSweepScheduler implements Closeable {
+
+    private static final long CHECK_INTERVAL_MINUTES = 60L;
+    private static final String LAST_SWEPT_DAY_KEY = "lastSweptDay";
+    private static final long CLOSE_TIMEOUT_SECONDS = 60L;
+
+    private final Database database;
+    private final FeeSweepEngine engine;
+    private final Path stateFile;
+    private LocalDate lastSweptDay; // null if never swept; guarded by this
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a scheduler and loads its persisted state.
+     * @param database The customers and accounts to sweep.
+     * @param journal Journal that receives a FEE record per fee charged, or null to skip journaling.
+     * @param stateFile File holding the last day swept.
+     * @throws IOException if an existing state file cannot be read.
+     */
+    public FeeSweepScheduler(Database database, TransactionJournal journal, Path stateFile) throws IOException {
+        this.database = database;
+        this.engine = new FeeSweepEngine(ForkJoinPool.commonPool(), journal);
+        this.stateFile = stateFile;
+        loadState();
+    }
+
+    /**
+     * @return The most recent day that has ended, i.e. the day that is due for its fee sweep.
+     */
+    public static LocalDate dueDay() {
+        return LocalDate.now().minusDays(1);
+    }
+
+    /**
+     * @return The last day swept, or null if no sweep has run yet.
+     */
+    public synchronized LocalDate getLastSweptDay() {
+        return lastSweptDay;
+    }
+
+    // --- Scheduling ---
+
+    /**
+     * Starts checking for a due day on a background thread: once immediately (to catch
+     * up after downtime), then every hour, so each day is swept within an hour of ending.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "fee-sweep-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                runDue(dueDay());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Scheduled fee sweep failed: " + e.getMessage());
+            }
+        }, 0L, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background checks and waits (up to a minute) for a sweep in progress to finish,
+     * so the caller can save the final snapshot after it.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = timer;
+            timer = null;
+        }
+        if (stopping == null) {
+            return;
+        }
+        stopping.shutdown();
+        // Not holding this scheduler's lock: the sweep being waited for needs it
+        try {
+            if (!stopping.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Fee sweep still in progress after " + CLOSE_TIMEOUT_SECONDS + " s; not waiting for it.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Running ---
+
+    /**
+     * Sweeps the end-of-day fees for {@code day} unless that day (or a later one) has already
+     * been swept. Safe to call repeatedly; a day already swept costs nothing, and a day whose
+     * sweep failed part-way only charges the accounts it had not charged yet.
+     * @param day The day that has ended.
+     * @return A summary of the sweep (all zero if the day had already been swept).
+     * @throws IOException if the state file, journal or snapshot cannot be written; the day is then retried.
+     */
+    public synchronized FeeSweepEngine.Result runDue(LocalDate day) throws IOException {
+        if (lastSweptDay != null && !day.isAfter(lastSweptDay)) {
+            return new FeeSweepEngine.Result(0, 0, 0L, 0L);
+        }
+
+        FeeSweepEngine.Result result = engine.runSweep(database, day);
+        if (result.getFeesCharged() != 0 && !database.saveSnapshot()) {
+            throw new IOException("Fees charged for " + day + " but the database snapshot could not be saved");
+        }
+
+        // Record the day only once its fees are durable, so a failure above leaves it to be retried
+        lastSweptDay = day;
+        saveState();
+        return result;
+    }
+
+    // --- State file ---
+
+    private void loadState() throws IOException {
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            properties.load(in);
+        }
+        String value = properties.getProperty(LAST_SWEPT_DAY_KEY);
+        if (value != null) {
+            lastSweptDay = LocalDate.parse(value);
+        }
+    }
+
+    /**
+     * Writes the state to a temporary file and atomically renames it into place.
+     */
+    private void saveState() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(LAST_SWEPT_DAY_KEY, lastSweptDay.toString());
+        Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Last day swept for end-of-day fees");
+        }
+        Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,254 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Month-end interest posting over many accounts at once.
+ * Balances and rates are copied into structure-of-arrays primitive columns, the
+ * monthly interest is computed over those columns in parallel fork/join chunks, and
+ * the results are written back with a CAS against the balance they were computed from.
+ * An account that changed in the meantime is recomputed against its new balance, so
+ * the outcome is identical to calling {@code applyInterest()} on each account: the
+ * months due since the account's last posted period (claimed with
+ * Account.claimInterestPeriods, so nothing is posted twice by this engine, the
+ * InterestScheduler or applyInterest) at the account's annual rate, rounded half-even to the cent.
+ * With a journal, each chunk writes back and appends its INTEREST records as one step of the
+ * journal's order (see TransactionJournal.runOrdered), so recovery replays them in the order
+ * the balances changed; the arithmetic itself still runs in parallel.
+ *
+ * This is a library entry point for bulk month-end runs over an explicit list of
+ * accounts (e.g. one branch); the application itself posts interest through the
+ * InterestScheduler, which adds persisted, per-partition catch-up on top.
+ */
+public class InterestBatchEngine {
+
+    /**
+     * Summary of one batch run.
+     */
+    public static final class Result {
+        private final int accountsPosted;
+        private final long totalInterestCents;
+        private final long writeBackRetries;
+
+        Result(int accountsPosted, long totalInterestCents, long writeBackRetries) {
+            this.accountsPosted = accountsPosted;
+            this.totalInterestCents = totalInterestCents;
+            this.writeBackRetries = writeBackRetries;
+        }
+
+        public int getAccountsPosted() {
+            return accountsPosted;
+        }
+
+        public long getTotalInterestCents() {
+            return totalInterestCents;
+        }
+
+        /**
+         * @return How many accounts had to be recomputed because they changed during the run.
+         */
+        public long getWriteBackRetries() {
+            return writeBackRetries;
+        }
+    }
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final TransactionJournal journal;
+
+    /**
+     * @param pool The pool the chunks run on.
+     * @param journal Journal that receives an INTEREST record per posting, or null to skip journaling.
+     */
+    public InterestBatchEngine(ForkJoinPool pool, TransactionJournal journal) {
+        this.pool = pool;
+        this.journal = journal;
+    }
+
+    /**
+     * Posts the interest due for the most recently ended month.
+     * @see #postMonthlyInterest(List, int)
+     */
+    public Result postMonthlyInterest(List<? extends Account> accounts) throws IOException {
+        return postMonthlyInterest(accounts, InterestScheduler.duePeriod());
+    }
+
+    /**
+     * Posts interest up to and including {@code period} to every interest-bearing account in
+     * {@code accounts}. Accounts already posted up to {@code period} are skipped, and so are
+     * accounts with a zero rate (e.g. Cheque accounts), as in their applyInterest(), and
+     * accounts on lazy daily accrual, which credit their own interest when touched.
+     * @param accounts The accounts to post to.
+     * @param period The period to post up to (see InterestScheduler.periodOf).
+     * @return A summary of the run.
+     * @throws IOException if journaling is enabled and an INTEREST record cannot be written.
+     */
+    public Result postMonthlyInterest(List<? extends Account> accounts, int period) throws IOException {
+        BankingEvents.InterestPosting event = new BankingEvents.InterestPosting();
+        event.begin();
+
+        // 1. Claim the due months and gather the columns (only accounts that actually earn interest)
+        int n = 0;
+        Account[] refs = new Account[accounts.size()];
+        long[] balances = new long[accounts.size()];
+        long[] rates = new long[accounts.size()];
+        int[] months = new int[accounts.size()];
+        for (Account account : accounts) {
+            long rate = account.getAnnualRatePpm();
+            if (rate == 0L || account.isDailyAccrualEnabled()) {
+                continue;
+            }
+            int due = account.claimInterestPeriods(period);
+            if (due != 0) {
+                refs[n] = account;
+                rates[n] = rate;
+                months[n] = due;
+                balances[n] = account.getBalanceCents();
+                n++;
+            }
+        }
+
+        // 2. Compute and write back (and journal) in parallel chunks
+        long[] interest = new long[n];
+        AtomicLong retries = new AtomicLong();
+        AtomicReference<CompletableFuture<Long>> last = new AtomicReference<>();
+        String reference = "Interest " + InterestScheduler.monthOf(period);
+        try {
+            pool.invoke(new Chunk(this, refs, balances, rates, months, interest, retries, last, reference,
+                    period, 0, n));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (last.get() != null) {
+            last.get().join(); // group commit completes futures in position order
+        }
+
+        // 3. Total the postings
+        long total = 0;
+        int posted = 0;
+        for (int i = 0; i < n; i++) {
+            if (interest[i] != 0L) {
+                total += interest[i];
+                posted++;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.period = InterestScheduler.monthOf(period).toString();
+            event.partition = -1;
+            event.accounts = n;
+            event.accountsPosted = posted;
+            event.totalInterestCents = total;
+            event.commit();
+        }
+        return new Result(posted, total, retries.get());
+    }
+
+    /**
+     * Writes back the interest computed for {@code [from, to)}, recomputing only for accounts
+     * that changed since their balance was gathered, and journals each posting.
+     * @param last Receives the future of the most recently appended record.
+     * @throws IOException if an INTEREST record cannot be appended.
+     */
+    private void writeBack(Account[] refs, long[] balances, long[] rates, int[] months, long[] interest,
+            AtomicLong retries, AtomicReference<CompletableFuture<Long>> last, String reference, int period,
+            int from, int to) throws IOException {
+        long localRetries = 0;
+        for (int i = from; i < to; i++) {
+            Account account = refs[i];
+            long expected = balances[i];
+            long gained = interest[i];
+            while (!account.compareAndSetBalance(expected, expected + gained)) {
+                localRetries++;
+                expected = account.getBalanceCents();
+                gained = InterestScheduler.compoundInterest(expected, rates[i], months[i]);
+            }
+            balances[i] = expected;
+            interest[i] = gained;
+            if (journal != null && gained != 0L) {
+                last.set(journal.append(TransactionType.INTEREST, account, gained, expected + gained, null,
+                        reference, period));
+            }
+        }
+        if (localRetries != 0) {
+            retries.addAndGet(localRetries);
+        }
+    }
+
+    /**
+     * One fork/join chunk: splits until small enough, then runs a tight loop over the columns.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final InterestBatchEngine engine;
+        private final Account[] refs;
+        private final long[] balances;
+        private final long[] rates;
+        private final int[] months;
+        private final long[] interest;
+        private final AtomicLong retries;
+        private final AtomicReference<CompletableFuture<Long>> last;
+        private final String reference;
+        private final int period;
+        private final int from;
+        private final int to;
+
+        Chunk(InterestBatchEngine engine, Account[] refs, long[] balances, long[] rates, int[] months,
+                long[] interest, AtomicLong retries, AtomicReference<CompletableFuture<Long>> last,
+                String reference, int period, int from, int to) {
+            this.engine = engine;
+            this.refs = refs;
+            this.balances = balances;
+            this.rates = rates;
+            this.months = months;
+            this.interest = interest;
+            this.retries = retries;
+            this.last = last;
+            this.reference = reference;
+            this.period = period;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Chunk(engine, refs, balances, rates, months, interest, retries, last, reference,
+                                period, from, mid),
+                        new Chunk(engine, refs, balances, rates, months, interest, retries, last, reference,
+                                period, mid, to));
+                return;
+            }
+
+            // Pure column arithmetic: no virtual calls, no allocation
+            for (int i = from; i < to; i++) {
+                interest[i] = InterestScheduler.compoundInterest(balances[i], rates[i], months[i]);
+            }
+
+            try {
+                if (engine.journal == null) {
+                    engine.writeBack(refs, balances, rates, months, interest, retries, last, reference, period,
+                            from, to);
+                } else {
+                    engine.journal.runOrdered(() -> {
+                        engine.writeBack(refs, balances, rates, months, interest, retries, last, reference,
+                                period, from, to);
+                        return null;
+                    });
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
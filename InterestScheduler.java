@@ -0,0 +1,395 @@
+package com.bankingsystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts monthly interest to every interest-bearing account on schedule, remembering
+ * which periods have been posted so runs are never repeated or double-counted.
+ *
+ * Accounts are split into a fixed number of partitions by account id. The last period
+ * completed by each partition is persisted in a small state file, so after a restart
+ * partitions that are already up to date are skipped without touching their accounts.
+ * Pending partitions run in parallel on a ForkJoinPool.
+ *
+ * Posting is idempotent per account: each account records the last period posted to it
+ * and claims new periods with a CAS (Account.claimInterestPeriods) before crediting.
+ * If runs were missed, the missing months are posted in one closed-form step,
+ * {@code balance * ((1 + r/12)^months - 1)}, instead of month by month.
+ *
+ * Crash safety: each posting is journaled as an INTEREST record carrying its period,
+ * appended together with the credit (see TransactionJournal.runOrdered), and startup
+ * replays the records written after the last snapshot (Database.recoverFromJournal).
+ * A posting whose record is durable therefore survives a crash with both its balance
+ * and its period, so it is never posted again; one whose record is not was lost with
+ * its balance and is posted by the next run. After posting, a run saves the Database
+ * snapshot and then records the completed partitions; a crash between the two only
+ * leaves partitions marked pending, and the per-account periods make re-running them
+ * post nothing. Without a journal, the snapshot alone carries balances and periods together.
+ */
+public class InterestScheduler implements Closeable {
+
+    /**
+     * Summary of one scheduler run.
+     */
+    public static final class RunResult {
+        private final int period;
+        private final int partitionsRun;
+        private final int accountsPosted;
+        private final long totalInterestCents;
+
+        RunResult(int period, int partitionsRun, int accountsPosted, long totalInterestCents) {
+            this.period = period;
+            this.partitionsRun = partitionsRun;
+            this.accountsPosted = accountsPosted;
+            this.totalInterestCents = totalInterestCents;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public int getPartitionsRun() {
+            return partitionsRun;
+        }
+
+        public int getAccountsPosted() {
+            return accountsPosted;
+        }
+
+        public long getTotalInterestCents() {
+            return totalInterestCents;
+        }
+    }
+
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final long CHECK_INTERVAL_MINUTES = 60L;
+    private static final String PARTITION_KEY_PREFIX = "partition.";
+    private static final long CLOSE_TIMEOUT_SECONDS = 60L;
+
+    private final Database database;
+    private final TransactionJournal journal;
+    private final Path stateFile;
+    private final int partitionCount;
+    private final int[] lastPostedPeriod; // per partition; guarded by this
+    private final ForkJoinPool pool;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a scheduler and loads its persisted partition state.
+     * @param database The customers and accounts to post to.
+     * @param journal Journal that receives an INTEREST record per posting, or null to skip journaling.
+     * @param stateFile File holding the last posted period of each partition.
+     * @param partitionCount Number of account partitions; changing it invalidates the saved partition state.
+     * @throws IOException if an existing state file cannot be read.
+     */
+    public InterestScheduler(Database database, TransactionJournal journal, Path stateFile, int partitionCount)
+            throws IOException {
+        this.database = database;
+        this.journal = journal;
+        this.stateFile = stateFile;
+        this.partitionCount = partitionCount;
+        this.lastPostedPeriod = new int[partitionCount];
+        this.pool = ForkJoinPool.commonPool();
+        loadState();
+    }
+
+    // --- Periods ---
+
+    /**
+     * Encodes a month as a period number (months since year 0), so that consecutive
+     * months differ by one.
+     * @param month The month.
+     * @return The period number.
+     */
+    public static int periodOf(YearMonth month) {
+        return month.getYear() * MONTHS_PER_YEAR + month.getMonthValue() - 1;
+    }
+
+    /**
+     * @param period A period number from {@link #periodOf(YearMonth)}.
+     * @return The month it stands for.
+     */
+    public static YearMonth monthOf(int period) {
+        return YearMonth.of(Math.floorDiv(period, MONTHS_PER_YEAR), Math.floorMod(period, MONTHS_PER_YEAR) + 1);
+    }
+
+    /**
+     * @return The most recent month that has ended, i.e. the period that is due for posting.
+     */
+    public static int duePeriod() {
+        return periodOf(YearMonth.now().minusMonths(1));
+    }
+
+    // --- Scheduling ---
+
+    /**
+     * Starts checking for due periods on a background thread: once immediately (to catch
+     * up after downtime), then every hour.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "interest-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                runDue(duePeriod());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Scheduled interest run failed: " + e.getMessage());
+            }
+        }, 0L, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background checks and waits (up to a minute) for a run in progress to finish,
+     * so the caller can save the final snapshot after it.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = timer;
+            timer = null;
+        }
+        if (stopping == null) {
+            return;
+        }
+        stopping.shutdown();
+        // Not holding this scheduler's lock: the run being waited for needs it
+        try {
+            if (!stopping.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Interest run still in progress after " + CLOSE_TIMEOUT_SECONDS + " s; not waiting for it.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Running ---
+
+    /**
+     * Posts interest up to and including {@code period} in every partition that has not
+     * completed it yet. Safe to call repeatedly; completed partitions cost nothing.
+     * @param period The period to post up to.
+     * @return A summary of the run.
+     * @throws IOException if the journal, snapshot or state file cannot be written.
+     */
+    public synchronized RunResult runDue(int period) throws IOException {
+        List<Integer> pending = new ArrayList<>();
+        for (int p = 0; p < partitionCount; p++) {
+            if (lastPostedPeriod[p] < period) {
+                pending.add(p);
+            }
+        }
+        if (pending.isEmpty()) {
+            return new RunResult(period, 0, 0, 0L);
+        }
+
+        // One pass over the book to bucket the interest-bearing accounts of pending partitions
+        List<List<Account>> buckets = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            buckets.add(lastPostedPeriod[p] < period ? new ArrayList<>() : null);
+        }
+        database.forEachCustomer(customer -> {
+            for (Account account : customer.getAccounts()) {
+                if (account.getAnnualRatePpm() != 0L && !account.isDailyAccrualEnabled()) {
+                    List<Account> bucket = buckets.get(partitionOf(account));
+                    if (bucket != null) {
+                        bucket.add(account);
+                    }
+                }
+            }
+        });
+
+        // Post the pending partitions in parallel
+        List<Future<long[]>> results = new ArrayList<>(pending.size());
+        for (int p : pending) {
+            List<Account> bucket = buckets.get(p);
+            results.add(pool.submit(() -> postPartition(p, bucket, period)));
+        }
+        int accountsPosted = 0;
+        long total = 0L;
+        for (Future<long[]> result : results) {
+            long[] partitionResult = await(result);
+            accountsPosted += (int) partitionResult[0];
+            total += partitionResult[1];
+        }
+
+        // Make the postings durable before recording the partitions as done
+        if (!database.saveSnapshot()) {
+            throw new IOException("Interest posted but the database snapshot could not be saved; partition state not updated");
+        }
+        for (int p : pending) {
+            lastPostedPeriod[p] = period;
+        }
+        saveState();
+        return new RunResult(period, pending.size(), accountsPosted, total);
+    }
+
+    /**
+     * Posts one partition.
+     * @return {accounts posted, total interest in cents}
+     */
+    private long[] postPartition(int partition, List<Account> accounts, int period) throws IOException {
+        BankingEvents.InterestPosting event = new BankingEvents.InterestPosting();
+        event.begin();
+        long posted = 0;
+        long total = 0;
+        CompletableFuture<Long> last = null;
+        String reference = "Interest " + monthOf(period);
+        for (Account account : accounts) {
+            int months = account.claimInterestPeriods(period);
+            if (months == 0) {
+                continue; // already posted (e.g. before a crash)
+            }
+            long rate = account.getAnnualRatePpm();
+            // {interest credited, balance after}
+            long[] credit = new long[2];
+            if (journal == null) {
+                post(account, rate, months, credit);
+            } else {
+                // Credit and journal as one step of the journal's order, so recovery replays it in place
+                CompletableFuture<Long> appended = journal.runOrdered(() -> {
+                    post(account, rate, months, credit);
+                    return credit[0] == 0L ? null : journal.append(TransactionType.INTEREST, account,
+                            credit[0], credit[1], null, reference, period);
+                });
+                if (appended != null) {
+                    last = appended;
+                }
+            }
+            if (credit[0] != 0L) {
+                posted++;
+                total += credit[0];
+            }
+        }
+        if (last != null) {
+            last.join(); // group commit completes futures in position order
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.period = monthOf(period).toString();
+            event.partition = partition;
+            event.accounts = accounts.size();
+            event.accountsPosted = posted;
+            event.totalInterestCents = total;
+            event.commit();
+        }
+        return new long[] {posted, total};
+    }
+
+    /**
+     * Credits {@code months} months of interest to {@code account}, retrying against a balance
+     * that changed concurrently.
+     * @param credit Receives {interest credited, balance after} in cents; the interest is 0 if the balance earns nothing.
+     */
+    private static void post(Account account, long rate, int months, long[] credit) {
+        while (true) {
+            long current = account.getBalanceCents();
+            long interest = compoundInterest(current, rate, months);
+            if (interest == 0L || account.compareAndSetBalance(current, current + interest)) {
+                credit[0] = interest;
+                credit[1] = current + interest;
+                return;
+            }
+            Account.onContention();
+        }
+    }
+
+    /**
+     * Interest for {@code months} months compounded monthly, rounded half-even to the cent.
+     * A single month is computed exactly, matching applyInterest().
+     */
+    static long compoundInterest(long balanceCents, long annualRatePpm, int months) {
+        if (months == 1) {
+            return Money.applyPeriodicRate(balanceCents, annualRatePpm, MONTHS_PER_YEAR, RoundingMode.HALF_EVEN);
+        }
+        double monthly = annualRatePpm / (double) Money.RATE_SCALE / MONTHS_PER_YEAR;
+        return (long) Math.rint(balanceCents * Math.expm1(months * Math.log1p(monthly)));
+    }
+
+    private int partitionOf(Account account) {
+        long id = account.getId();
+        long hash = id != AccountId.NONE ? AccountId.hash(id) : account.getAccountNumber().hashCode();
+        return (int) Math.floorMod(hash, (long) partitionCount);
+    }
+
+    private static long[] await(Future<long[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while posting interest", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Interest partition failed", e.getCause());
+        }
+    }
+
+    // --- State file ---
+
+    private void loadState() throws IOException {
+        Arrays.fill(lastPostedPeriod, Account.NO_INTEREST_PERIOD);
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            properties.load(in);
+        }
+        if (!String.valueOf(partitionCount).equals(properties.getProperty("partitions"))) {
+            // Partitioning changed: start over; per-account periods still prevent double posting
+            System.err.println("Interest scheduler partition count changed; ignoring saved partition state.");
+            return;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            String value = properties.getProperty(PARTITION_KEY_PREFIX + p);
+            if (value != null) {
+                lastPostedPeriod[p] = Integer.parseInt(value);
+            }
+        }
+    }
+
+    /**
+     * Writes the partition state to a temporary file and atomically renames it into place.
+     */
+    private void saveState() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("partitions", String.valueOf(partitionCount));
+        for (int p = 0; p < partitionCount; p++) {
+            if (lastPostedPeriod[p] != Account.NO_INTEREST_PERIOD) {
+                properties.setProperty(PARTITION_KEY_PREFIX + p, String.valueOf(lastPostedPeriod[p]));
+            }
+        }
+        Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Last interest period posted per partition");
+        }
+        Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,12 +1,15 @@
 package com.bankingsystem;
 
+import java.math.RoundingMode;
+
 /**
  * Represents an Investment Account, which typically has high interest but restrictions on withdrawals.
  * This class now includes specific details like risk level and investment breakdown for the UI.
  */
 public class InvestmentAccount extends Account {
     private double annualReturnRate;
-    private static final double WITHDRAWAL_PENALTY_RATE = 0.05; // 5% penalty
+    private final long annualReturnRatePpm;
+    private static final long WITHDRAWAL_PENALTY_RATE_PPM = 50_000L; // 5% penalty
 
     // Investment-specific fields needed by the controller
     private String riskLevel = "Medium";
@@ -20,52 +23,82 @@ public class InvestmentAccount extends Account {
      * @param branch The branch where the account is held.
      */
     public InvestmentAccount(String accountNumber, double initialBalance, double annualReturnRate, String branch) {
-        // CALL to Account constructor, now requiring branch
-        super(accountNumber, branch);
+        // CALL to Account constructor, now requiring branch and the opening balance
+        super(accountNumber, branch, Money.fromAmount(initialBalance));
 
-        // Set the initial balance manually
-        this.balance = initialBalance;
         this.annualReturnRate = annualReturnRate;
+        this.annualReturnRatePpm = Money.rateOf(annualReturnRate);
+    }
+
+    /**
+     * Fixed-point constructor, used when restoring accounts (e.g. from a DatabaseSnapshot)
+     * so the stored cents and rate are not rounded through a double.
+     * @param accountNumber Unique account number.
+     * @param branch The branch where the account is held.
+     * @param initialBalanceCents Starting balance, in cents.
+     * @param annualReturnRatePpm The expected annual return rate in parts-per-million (e.g. 40_000 for 4%).
+     */
+    public InvestmentAccount(String accountNumber, String branch, long initialBalanceCents, long annualReturnRatePpm) {
+        super(accountNumber, branch, initialBalanceCents);
+
+        this.annualReturnRate = annualReturnRatePpm / (double) Money.RATE_SCALE;
+        this.annualReturnRatePpm = annualReturnRatePpm;
+    }
+
+    /**
+     * Computes the early-withdrawal penalty for an amount, rounded half-up to the cent.
+     * @param cents The withdrawal amount in cents.
+     * @return The penalty in cents.
+     */
+    public static long penaltyFor(long cents) {
+        return Money.applyRate(cents, WITHDRAWAL_PENALTY_RATE_PPM, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Withdraws funds as a single atomic step; the penalty-inclusive funds check is
+     * evaluated against the exact balance that is replaced.
+     */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
-            System.err.println("Withdrawal amount must be positive.");
-            return false;
+    protected long performWithdrawal(long cents) {
+        if (cents <= 0) {
+            EventLogger.getInstance().log(EventLogger.Type.WITHDRAWAL_INVALID, this.accountNumber, cents, getBalanceCents());
+            return REJECTED;
         }
 
-        if (this.balance >= amount) {
-            double penalty = amount * WITHDRAWAL_PENALTY_RATE;
-            double totalDeduction = amount + penalty;
-
-            if (this.balance >= totalDeduction) {
-                this.balance -= totalDeduction;
-                System.out.printf("Withdrawal of %.2f successful from Investment Account %s. Penalty of $%.2f applied. Remaining balance: $%.2f%n",
-                        amount, this.accountNumber, penalty, this.balance);
-                return true;
-            } else {
-                System.err.printf("Withdrawal of %.2f failed. Insufficient funds to cover amount plus penalty of $%.2f. Current balance: $%.2f%n",
-                        amount, penalty, this.balance);
-                return false;
+        // The penalty depends only on the amount, so it is computed once outside the retry loop
+        long penalty = penaltyFor(cents);
+        long totalDeduction = cents + penalty;
+
+        while (true) {
+            long current = getBalanceCents();
+
+            if (current < cents) {
+                EventLogger.getInstance().log(EventLogger.Type.INSUFFICIENT_FUNDS, this.accountNumber, cents, current);
+                return REJECTED;
+            }
+            if (current < totalDeduction) {
+                EventLogger.getInstance().log(EventLogger.Type.INSUFFICIENT_FUNDS, this.accountNumber, cents, current, penalty);
+                return REJECTED;
             }
-        } else {
-            System.err.printf("Withdrawal of %.2f failed. Insufficient funds in Investment Account %s. Current balance: $%.2f%n",
-                    amount, this.accountNumber, this.balance);
-            return false;
+
+            long updated = current - totalDeduction;
+            if (compareAndSetBalance(current, updated)) {
+                EventLogger.getInstance().log(EventLogger.Type.WITHDRAWN, this.accountNumber, cents, updated, penalty);
+                return updated;
+            }
+            onContention();
         }
     }
 
     /**
      * Applies the annual return rate (simplified monthly application).
+     * Returns are rounded half-even to the cent.
      */
     @Override
     public void applyInterest() {
-        double monthlyRate = this.annualReturnRate / 12.0;
-        double returnGained = this.balance * monthlyRate;
-        this.balance += returnGained;
-        System.out.printf("Monthly return applied (%.4f%%). Gained $%.2f. New balance: $%.2f%n",
-                monthlyRate * 100, returnGained, this.balance);
+        long returnGained = creditMonthlyInterest(this.annualReturnRatePpm);
+        EventLogger.getInstance().log(EventLogger.Type.INTEREST_APPLIED, this.accountNumber, returnGained,
+                getBalanceCents(), this.annualReturnRatePpm);
     }
 
     // --- Methods added to support the InvestmentAccountController UI ---
@@ -91,4 +124,9 @@ public class InvestmentAccount extends Account {
     public double getExpectedAnnualReturn() {
         return annualReturnRate;
     }
+
+    @Override
+    public long getAnnualRatePpm() {
+        return annualReturnRatePpm;
+    }
 }
\ No newline at end of file
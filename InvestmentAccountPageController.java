@@ -2,26 +2,14 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Optional;
 
-// --- MISSING IMPORTS ADDED HERE ---
-import com.bankingsystem.WithdrawPageController;
-import com.bankingsystem.DepositPageController;
-import com.bankingsystem.transferController;
-import com.bankingsystem.ViewTransactionsController;
-// ----------------------------------
-
-public class InvestmentAccountPageController {
+public class InvestmentAccountPageController implements SceneNavigator.Refreshable {
 
     // --- FXML Fields matching InvestmentAccountPage.fxml ---
     @FXML private TextArea investmentTextAtrea;
@@ -41,11 +29,21 @@ public class InvestmentAccountPageController {
 
 
     /**
-     * Called automatically after the FXML file is loaded.
-     * Initializes the account display using the actual data of the logged-in customer.
+     * Called automatically after the FXML file is loaded (once, as the view is cached).
      */
     @FXML
     public void initialize() {
+        investmentTextAtrea.setEditable(false);
+    }
+
+    /**
+     * Called each time the page is shown.
+     * Updates the account display using the actual data of the logged-in customer.
+     */
+    @Override
+    public void refresh() {
+        investmentAccount = null;
+
         // 1. Get the current customer established during login
         currentCustomer = LoginPageController.getLoggedInCustomer();
 
@@ -57,12 +55,10 @@ public class InvestmentAccountPageController {
         }
 
         // 2. Find the Investment Account
-        Optional<Account> accountOpt = currentCustomer.getAccounts().stream()
-                .filter(a -> a instanceof InvestmentAccount)
-                .findFirst();
+        Optional<InvestmentAccount> accountOpt = currentCustomer.getInvestmentAccount();
 
         if (accountOpt.isPresent()) {
-            investmentAccount = (InvestmentAccount) accountOpt.get();
+            investmentAccount = accountOpt.get();
 
             // 3. Display real data
             updateAccountDisplay();
@@ -72,8 +68,6 @@ public class InvestmentAccountPageController {
             balanceValueLabel.setText("N/A");
             investmentTextAtrea.setText("No Investment Account found for this customer.");
         }
-
-        investmentTextAtrea.setEditable(false);
     }
 
     /**
@@ -129,15 +123,8 @@ public class InvestmentAccountPageController {
     @FXML
     private void handleExit(ActionEvent event) {
         try {
-            // Load the AccountsPage.fxml from the correct resource path
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/AccountsPage.fxml"));
-            Scene scene = new Scene(root);
-
-            // Get the current Stage (Window) and set the new Scene
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle("Bank App - My Accounts");
-            window.show();
+            // Show the (cached) AccountsPage.fxml in the current window
+            SceneNavigator.getInstance().show(event, "/fxml/AccountsPage.fxml", "Bank App - My Accounts");
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Error loading AccountsPage.fxml. Check the file path and existence.");
@@ -154,31 +141,14 @@ public class InvestmentAccountPageController {
      */
     private <T> void navigateToActionPage(ActionEvent event, String fxmlPath, String title, String accountType, Class<T> controllerClass) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
+            SceneNavigator.View view = SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
 
             // *** IMPORTANT CONTEXT PASSING LOGIC ***
-            T controller = loader.getController();
-
-            if (controller instanceof WithdrawPageController withdrawController) {
-                withdrawController.setSourceAccount(investmentAccount, accountType);
-            } else if (controller instanceof DepositPageController depositController) {
-                depositController.setSourceAccount(investmentAccount, accountType);
-            } else if (controller instanceof transferController transferController) {
-                transferController.setSourceAccount(investmentAccount, accountType);
-            } else if (controller instanceof ViewTransactionsController transactionController) {
-                transactionController.setSourceAccount(investmentAccount, accountType);
-            } else {
-                System.err.println("Error: Controller type mismatch or 'setSourceAccount' method not found for " + controllerClass.getSimpleName());
-            }
+            T controller = view.getController();
 
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
+            if (!AccountContext.pass(controller, investmentAccount, accountType)) {
+                System.err.println("Error: " + controllerClass.getSimpleName() + " does not accept an account (implement AccountContextAware).");
+            }
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,205 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent per-account index over the TransactionJournal: account number to the
+ * ordered list of that account's record positions. Maintained by the journal on every
+ * append, so an account's history can be served by reading only its own records.
+ *
+ * The index file is an append-only sequence of 24-byte entries
+ * (16-byte ASCII account number, 8-byte position). It is derived data: entries are
+ * buffered and written in blocks, and on open any entries beyond the journal's end
+ * are ignored and any records missing from the index are re-indexed from the journal.
+ *
+ * Single writer (the journal, under its append lock), any number of concurrent readers.
+ */
+class JournalIndex {
+
+    private static final int ENTRY_SIZE = JournalRecord.ACCOUNT_LENGTH + Long.BYTES;
+    private static final int WRITE_BUFFER_ENTRIES = 2048;
+
+    /**
+     * Append-only list of positions for one account. Readers read {@code size}
+     * before {@code positions}, and the writer publishes the array before the size,
+     * so every index below a observed size is always present.
+     */
+    static final class PositionList {
+        private volatile long[] positions = new long[8];
+        private volatile int size;
+
+        void add(long position) {
+            long[] current = positions;
+            int n = size;
+            if (n == current.length) {
+                current = Arrays.copyOf(current, n << 1);
+                current[n] = position;
+                positions = current;
+            } else {
+                current[n] = position;
+            }
+            size = n + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            int n = size;
+            if (index < 0 || index >= n) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+            }
+            return positions[index];
+        }
+    }
+
+    private final Map<String, PositionList> byAccount = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer;
+    private long indexedUpTo; // journal positions below this are indexed
+
+    private JournalIndex(FileChannel channel) {
+        this.channel = channel;
+        this.writeBuffer = ByteBuffer.allocateDirect(ENTRY_SIZE * WRITE_BUFFER_ENTRIES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Loads the index file for a journal and brings it up to date with the journal's records.
+     * @param file The index file.
+     * @param journal The journal being indexed (already recovered).
+     * @return The loaded index.
+     * @throws IOException if the index file cannot be read or written.
+     */
+    static JournalIndex load(Path file, TransactionJournal journal) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalIndex index = new JournalIndex(channel);
+        long journalSize = journal.size();
+
+        // 1. Read the persisted entries, keeping only those that refer to committed records
+        long validBytes = 0;
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(ENTRY_SIZE * WRITE_BUFFER_ENTRIES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] name = new byte[JournalRecord.ACCOUNT_LENGTH];
+        long filePosition = 0;
+        boolean done = false;
+        while (!done) {
+            readBuffer.clear();
+            int read = channel.read(readBuffer, filePosition);
+            if (read <= 0) {
+                break;
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= ENTRY_SIZE) {
+                readBuffer.get(name);
+                long position = readBuffer.getLong();
+                if (position != index.indexedUpTo || position >= journalSize) {
+                    done = true; // torn tail or entry for a record lost in a crash
+                    break;
+                }
+                index.positionsFor(decodeAscii(name)).add(position);
+                index.indexedUpTo = position + 1;
+                validBytes += ENTRY_SIZE;
+            }
+            filePosition += read - readBuffer.remaining();
+        }
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+
+        // 2. Index any journal records written after the last persisted entry
+        journal.scan(index.indexedUpTo, (position, record) -> {
+            index.add(record.getAccountNumber(), position);
+            return true;
+        });
+        index.flush();
+        return index;
+    }
+
+    /**
+     * Records that the journal record at {@code position} belongs to {@code accountNumber}.
+     * Must be called in position order by the single journal writer.
+     */
+    void add(String accountNumber, long position) {
+        positionsFor(accountNumber).add(position);
+        indexedUpTo = position + 1;
+
+        if (writeBuffer.remaining() < ENTRY_SIZE) {
+            flushQuietly();
+        }
+        JournalRecord.writeAscii(writeBuffer, writeBuffer.position(), JournalRecord.ACCOUNT_LENGTH, accountNumber);
+        writeBuffer.position(writeBuffer.position() + JournalRecord.ACCOUNT_LENGTH);
+        writeBuffer.putLong(position);
+    }
+
+    /**
+     * Writes buffered entries to the index file.
+     */
+    void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    void close() throws IOException {
+        flush();
+        channel.force(false);
+        channel.close();
+    }
+
+    // --- Lookups ---
+
+    /**
+     * @return The number of journal records for the account.
+     */
+    int count(String accountNumber) {
+        PositionList list = byAccount.get(accountNumber);
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * @return The journal position of the account's {@code index}-th record (0 = oldest).
+     */
+    long position(String accountNumber, int index) {
+        PositionList list = byAccount.get(accountNumber);
+        if (list == null) {
+            throw new IndexOutOfBoundsException("No records for account " + accountNumber);
+        }
+        return list.get(index);
+    }
+
+    private PositionList positionsFor(String accountNumber) {
+        return byAccount.computeIfAbsent(accountNumber, k -> new PositionList());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // The index is rebuilt from the journal on the next open, so a failed write only costs startup time
+            System.err.println("Warning: could not write journal index entries. Details: " + e.getMessage());
+            writeBuffer.clear();
+        }
+    }
+
+    private static String decodeAscii(byte[] bytes) {
+        int length = 0;
+        while (length < bytes.length && bytes[length] != 0) {
+            length++;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) bytes[i];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,231 @@
+package com.bankingsystem;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.CRC32C;
+
+/**
+ * Zero-copy view of one fixed-layout record inside a TransactionJournal segment.
+ * The same instance is re-pointed at each record during a scan, so it must not be
+ * retained by callers; copy out the fields (or call {@link #format()}) instead.
+ *
+ * Record layout (little-endian, {@link #RECORD_SIZE} bytes):
+ * <pre>
+ *  0  int   commit marker (written last)
+ *  4  byte  TransactionType ordinal
+ *  5  byte  account type code ('S', 'C', 'I' or 0)
+ *  6  byte  counterparty account type code
+ *  7  byte  reserved
+ *  8  long  timestamp (epoch millis)
+ * 16  long  amount (cents)
+ * 24  long  balance after the transaction (cents)
+ * 32  16B   account number (ASCII, zero padded)
+ * 48  16B   counterparty account number
+ * 64  24B   reference (e.g. phone number)
+ * 88  int   period: the interest period an INTEREST record posts (see InterestScheduler.periodOf),
+ *           the epoch day a FEE record charges the end-of-day fee for, 0 otherwise
+ * 92  int   CRC-32C of bytes 4 to 91
+ * </pre>
+ * A record's pages can reach disk in any order after a crash, so the marker alone does not
+ * prove the rest of the record was written; the checksum does. Records written before the
+ * checksum was added carry {@link #LEGACY_COMMIT_MARKER} and a 32-byte reference instead.
+ */
+public final class JournalRecord {
+
+    public static final int RECORD_SIZE = 96;
+
+    static final int COMMIT_MARKER = 0x4A524E32; // "JRN2"
+    static final int LEGACY_COMMIT_MARKER = 0x4A524E4C; // "JRNL"
+
+    static final int OFF_MARKER = 0;
+    static final int OFF_TYPE = 4;
+    static final int OFF_ACCOUNT_TYPE = 5;
+    static final int OFF_COUNTERPARTY_TYPE = 6;
+    static final int OFF_TIMESTAMP = 8;
+    static final int OFF_AMOUNT = 16;
+    static final int OFF_BALANCE = 24;
+    static final int OFF_ACCOUNT = 32;
+    static final int OFF_COUNTERPARTY = 48;
+    static final int OFF_REFERENCE = 64;
+    static final int OFF_PERIOD = 88;
+    static final int OFF_CHECKSUM = 92;
+
+    static final int ACCOUNT_LENGTH = 16;
+    static final int REFERENCE_LENGTH = 24;
+    static final int LEGACY_REFERENCE_LENGTH = 32;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Points this view at the record starting at {@code offset} in {@code buffer}.
+     */
+    JournalRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    // --- Field accessors ---
+
+    public TransactionType getType() {
+        return TransactionType.fromOrdinal(buffer.get(offset + OFF_TYPE));
+    }
+
+    public AccountType getAccountType() {
+        return AccountType.fromCode((char) buffer.get(offset + OFF_ACCOUNT_TYPE));
+    }
+
+    public AccountType getCounterpartyType() {
+        return AccountType.fromCode((char) buffer.get(offset + OFF_COUNTERPARTY_TYPE));
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset + OFF_TIMESTAMP);
+    }
+
+    public long getAmountCents() {
+        return buffer.getLong(offset + OFF_AMOUNT);
+    }
+
+    public long getBalanceAfterCents() {
+        return buffer.getLong(offset + OFF_BALANCE);
+    }
+
+    public String getAccountNumber() {
+        return readAscii(offset + OFF_ACCOUNT, ACCOUNT_LENGTH);
+    }
+
+    public String getCounterpartyAccountNumber() {
+        return readAscii(offset + OFF_COUNTERPARTY, ACCOUNT_LENGTH);
+    }
+
+    /**
+     * @return The interest period an INTEREST record posts, the epoch day a FEE record was
+     *         charged for, or 0 for other records.
+     */
+    public int getPeriod() {
+        boolean legacy = buffer.getInt(offset + OFF_MARKER) == LEGACY_COMMIT_MARKER;
+        return legacy ? 0 : buffer.getInt(offset + OFF_PERIOD);
+    }
+
+    public String getReference() {
+        boolean legacy = buffer.getInt(offset + OFF_MARKER) == LEGACY_COMMIT_MARKER;
+        return readAscii(offset + OFF_REFERENCE, legacy ? LEGACY_REFERENCE_LENGTH : REFERENCE_LENGTH);
+    }
+
+    /**
+     * Compares the stored account number with {@code accountNumber} without creating a String.
+     * @param accountNumber The account number to compare against.
+     * @return true if they are equal.
+     */
+    public boolean isForAccount(String accountNumber) {
+        int base = offset + OFF_ACCOUNT;
+        int length = accountNumber.length();
+        if (length > ACCOUNT_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(base + i) != (byte) accountNumber.charAt(i)) {
+                return false;
+            }
+        }
+        return length == ACCOUNT_LENGTH || buffer.get(base + length) == 0;
+    }
+
+    /**
+     * Formats the record as a human-readable history line, matching the layout of the
+     * legacy text transaction files.
+     * @return The formatted line (without a trailing newline).
+     */
+    public String format() {
+        String timestamp = TIMESTAMP_FORMAT.format(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(getTimestamp()), ZoneId.systemDefault()));
+        TransactionType type = getType();
+        double amount = Money.toAmount(getAmountCents());
+        double balance = Money.toAmount(getBalanceAfterCents());
+
+        switch (type) {
+            case TRANSFER_OUT:
+                return String.format("[%s] TRANSFER OUT | Type: %s | To Account: %s (%s) | Amount: $%.2f | New Balance: $%,.2f",
+                        timestamp, displayName(getAccountType()), getCounterpartyAccountNumber(),
+                        displayName(getCounterpartyType()), amount, balance);
+            case TRANSFER_IN:
+                return String.format("[%s] TRANSFER IN | Type: %s | From Account: %s (%s) | Amount: $%.2f | New Balance: $%,.2f",
+                        timestamp, displayName(getAccountType()), getCounterpartyAccountNumber(),
+                        displayName(getCounterpartyType()), amount, balance);
+            default:
+                String reference = getReference();
+                // Deposits and withdrawals carry the customer's phone number; other records a free-form reference
+                String referenceLabel = (type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAWAL)
+                        ? "Phone" : "Reference";
+                return String.format("[%s] %s | Account Type: %s | Account: %s | Amount: $%.2f | New Balance: $%,.2f | %s: %s",
+                        timestamp, type.getLabel(), displayName(getAccountType()), getAccountNumber(),
+                        amount, balance, referenceLabel, reference.isEmpty() ? "N/A" : reference);
+        }
+    }
+
+    // --- Encoding helpers shared with TransactionJournal ---
+
+    /**
+     * Writes {@code value} as zero-padded ASCII into a fixed-width field without allocating.
+     */
+    static void writeAscii(ByteBuffer buffer, int position, int width, String value) {
+        int length = value == null ? 0 : Math.min(value.length(), width);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            buffer.put(position + i, c < 0x80 ? (byte) c : (byte) '?');
+        }
+        for (int i = length; i < width; i++) {
+            buffer.put(position + i, (byte) 0);
+        }
+    }
+
+    /**
+     * Computes the checksum stored at OFF_CHECKSUM over every field between the marker and the checksum.
+     * @param buffer The segment holding the record.
+     * @param offset The offset of the record in {@code buffer}.
+     * @return The CRC-32C of the record's fields.
+     */
+    static int checksum(ByteBuffer buffer, int offset) {
+        ByteBuffer fields = buffer.duplicate();
+        fields.position(offset + OFF_TYPE).limit(offset + OFF_CHECKSUM);
+        CRC32C crc = new CRC32C();
+        crc.update(fields);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @param buffer The segment holding the record.
+     * @param offset The offset of the record in {@code buffer}.
+     * @return true if the record has a commit marker and, unless it is a legacy record, a matching checksum.
+     */
+    static boolean isCommitted(ByteBuffer buffer, int offset) {
+        int marker = buffer.getInt(offset + OFF_MARKER);
+        if (marker == COMMIT_MARKER) {
+            return buffer.getInt(offset + OFF_CHECKSUM) == checksum(buffer, offset);
+        }
+        return marker == LEGACY_COMMIT_MARKER;
+    }
+
+    private String readAscii(int position, int width) {
+        int length = 0;
+        while (length < width && buffer.get(position + length) != 0) {
+            length++;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(position + i);
+        }
+        return new String(chars);
+    }
+
+    private static String displayName(AccountType type) {
+        return type == null ? "Unknown" : type.getDisplayName();
+    }
+}
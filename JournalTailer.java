@@ -0,0 +1,110 @@
+package com.bankingsystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the transaction journal for new records of one account.
+ * Remembers the last journal position it has read and, whenever the journal directory
+ * changes, scans only the records appended since then. If any of them belong to the
+ * followed account, the listener is notified with the account's new record count.
+ *
+ * Writes through a memory mapping do not always raise file-system events, so the
+ * watcher also wakes up every {@link #POLL_INTERVAL_MILLIS} ms; a wake-up with
+ * nothing new costs a single volatile read.
+ */
+public class JournalTailer implements Closeable {
+
+    /**
+     * Receives the followed account's total record count when new records arrive.
+     * Called on the tailer thread.
+     */
+    public interface Listener {
+        void onNewRecords(int accountRecordCount);
+    }
+
+    private static final long POLL_INTERVAL_MILLIS = 250L;
+
+    private final TransactionJournal journal;
+    private final String accountNumber;
+    private final Listener listener;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private long lastReadPosition;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a tailer; call {@link #start()} to begin following.
+     * @param journal The journal to follow.
+     * @param accountNumber The account whose records are of interest.
+     * @param listener Notified (on the tailer thread) when new records for the account arrive.
+     * @throws IOException if the journal directory cannot be watched.
+     */
+    public JournalTailer(TransactionJournal journal, String accountNumber, Listener listener) throws IOException {
+        this.journal = journal;
+        this.accountNumber = accountNumber;
+        this.listener = listener;
+        this.lastReadPosition = journal.size();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        journal.getDirectory().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "journal-tail-" + accountNumber);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops following and releases the watch service.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close(); // unblocks the tailer thread
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                WatchKey key = watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents(); // the events only tell us "something changed"
+                    key.reset();
+                }
+                readNewRecords();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    /**
+     * Scans only the records appended since the last read position.
+     */
+    private void readNewRecords() {
+        if (journal.size() == lastReadPosition) {
+            return;
+        }
+        boolean[] found = {false};
+        lastReadPosition = journal.scan(lastReadPosition, (position, record) -> {
+            if (record.isForAccount(accountNumber)) {
+                found[0] = true;
+            }
+            return true;
+        });
+        if (found[0] && running) {
+            listener.onNewRecords(journal.countForAccount(accountNumber));
+        }
+    }
+}
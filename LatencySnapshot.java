@@ -0,0 +1,70 @@
+package com.bankingsystem;
+
+/**
+ * Immutable percentile summary of a LatencyHistogram, in milliseconds.
+ * Published over JMX as a composite value (see OperationMetricsMXBean).
+ */
+public final class LatencySnapshot {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long count;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double maxMillis;
+    private final double meanMillis;
+
+    private LatencySnapshot(LatencyHistogram histogram) {
+        this.count = histogram.getCount();
+        this.p50Millis = histogram.getValueAtPercentile(50.0) / NANOS_PER_MILLI;
+        this.p90Millis = histogram.getValueAtPercentile(90.0) / NANOS_PER_MILLI;
+        this.p99Millis = histogram.getValueAtPercentile(99.0) / NANOS_PER_MILLI;
+        this.p999Millis = histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI;
+        this.maxMillis = histogram.getMaxNanos() / NANOS_PER_MILLI;
+        this.meanMillis = histogram.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @param histogram The histogram to summarize.
+     * @return Its current percentiles.
+     */
+    public static LatencySnapshot of(LatencyHistogram histogram) {
+        return new LatencySnapshot(histogram);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getP999Millis() {
+        return p999Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%,d p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms mean=%.3fms",
+                count, p50Millis, p90Millis, p99Millis, p999Millis, maxMillis, meanMillis);
+    }
+}
@@ -0,0 +1,508 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Headless load test for the domain and data layer, run without JavaFX.
+ * It creates a number of simulated customers in the Database, each with a Savings,
+ * Cheque and Investment account, and drives them with a weighted mix of deposits,
+ * withdrawals and transfers (through TransactionService, the same path the pages use)
+ * and history reads (the last page of an account's journal, formatted as the
+ * View Transactions page formats it). Records go to a scratch journal, never ./journal.
+ *
+ * Two modes:
+ * <ul>
+ *   <li>closed: every customer has one operation outstanding at a time, optionally
+ *       pausing between operations; throughput is whatever the system sustains.</li>
+ *   <li>open: operations arrive at a fixed rate whether or not earlier ones have
+ *       finished; latency is measured from the scheduled start, so queueing delay
+ *       past the saturation point shows up in the percentiles.</li>
+ * </ul>
+ * Operations refused by TransactionService's back-pressure are counted as rejected.
+ *
+ * Usage: {@code java com.bankingsystem.LoadGenerator [--option=value ...]}, see {@link #USAGE}.
+ */
+public class LoadGenerator {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: LoadGenerator [--option=value ...]",
+            "  --customers=N        simulated customers (default 100)",
+            "  --mode=closed|open   closed loop or fixed arrival rate (default closed)",
+            "  --rate=N             open mode: operations per second (default 1000)",
+            "  --think=MS           closed mode: pause between a customer's operations (default 0)",
+            "  --duration=S         measured seconds (default 30)",
+            "  --warmup=S           seconds run before measuring (default 5)",
+            "  --mix=LIST           weights, e.g. deposit:40,withdraw:30,transfer:20,history:10",
+            "  --durability=MODE    journal durability: NONE, PER_RECORD or GROUP_COMMIT (default GROUP_COMMIT)",
+            "  --max-in-flight=N    TransactionService back-pressure limit (default 1024)",
+            "  --journal=DIR        keep the journal in DIR instead of a deleted temporary directory");
+
+    /**
+     * The simulated operations.
+     */
+    enum Operation {
+        DEPOSIT, WITHDRAW, TRANSFER, HISTORY
+    }
+
+    private static final String CUSTOMER_CODE_PREFIX = "LOAD";
+    private static final int FIRST_ACCOUNT_NUMBER = 80_000_000;
+    private static final double OPENING_BALANCE = 10_000.00;
+    private static final String BRANCH = "Load Test Branch";
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final long MAX_AMOUNT_CENTS = 10_000L; // $100.00
+    private static final long PROGRESS_INTERVAL_SECONDS = 5L;
+    private static final long DRAIN_TIMEOUT_SECONDS = 30L;
+
+    // --- Configuration ---
+
+    private int customerCount = 100;
+    private boolean openLoop;
+    private double ratePerSecond = 1000.0;
+    private long thinkMillis;
+    private long durationSeconds = 30L;
+    private long warmupSeconds = 5L;
+    private final int[] weights = {40, 30, 20, 10};
+    private TransactionJournal.Durability durability = TransactionJournal.Durability.GROUP_COMMIT;
+    private int maxInFlight = 1024;
+    private Path journalDirectory;
+
+    // --- Run state ---
+
+    private Customer[] customers;
+    private TransactionJournal journal;
+    private TransactionService service;
+    private ExecutorService workers;
+    private ScheduledExecutorService timer;
+    private volatile boolean running;
+    private long measureStartNanos;
+    private long measureEndNanos;
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> declined = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejected = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder completed = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            declined.put(operation, new LongAdder());
+            rejected.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) {
+        LoadGenerator generator = new LoadGenerator();
+        if (!generator.configure(args)) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            generator.run();
+        } catch (IOException e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads {@code --option=value} arguments.
+     * @param args The command-line arguments.
+     * @return true if every argument was understood and valid, false otherwise.
+     */
+    boolean configure(String[] args) {
+        try {
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    System.err.println("Unrecognized argument: " + arg);
+                    return false;
+                }
+                String value = arg.substring(equals + 1);
+                switch (arg.substring(2, equals)) {
+                    case "customers": customerCount = Integer.parseInt(value); break;
+                    case "mode": openLoop = parseMode(value); break;
+                    case "rate": ratePerSecond = Double.parseDouble(value); break;
+                    case "think": thinkMillis = Long.parseLong(value); break;
+                    case "duration": durationSeconds = Long.parseLong(value); break;
+                    case "warmup": warmupSeconds = Long.parseLong(value); break;
+                    case "mix": parseMix(value); break;
+                    case "durability": durability = TransactionJournal.Durability.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "max-in-flight": maxInFlight = Integer.parseInt(value); break;
+                    case "journal": journalDirectory = Paths.get(value); break;
+                    default:
+                        System.err.println("Unknown option: " + arg);
+                        return false;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid option value: " + e.getMessage());
+            return false;
+        }
+        if (customerCount < 2 || ratePerSecond <= 0 || thinkMillis < 0 || durationSeconds <= 0
+                || warmupSeconds < 0 || maxInFlight <= 0 || totalWeight() <= 0) {
+            System.err.println("Options out of range: need at least 2 customers, a positive rate, duration and mix.");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean parseMode(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "closed": return false;
+            case "open": return true;
+            default: throw new IllegalArgumentException("mode must be closed or open: " + value);
+        }
+    }
+
+    private void parseMix(String value) {
+        Arrays.fill(weights, 0);
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("mix entries look like deposit:40, got " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("mix weights must not be negative: " + part);
+            }
+            weights[Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)).ordinal()] = weight;
+        }
+    }
+
+    private int totalWeight() {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        return total;
+    }
+
+    // --- Running ---
+
+    /**
+     * Sets up the customers and journal, runs the warm-up and measured phases, then prints the report.
+     * @throws IOException if the journal cannot be created or the customers cannot be added.
+     */
+    public void run() throws IOException {
+        boolean temporaryJournal = journalDirectory == null;
+        Path directory = temporaryJournal ? Files.createTempDirectory("load-journal") : journalDirectory;
+        journal = TransactionJournal.open(directory, durability, 256, 2_000L);
+        service = new TransactionService(maxInFlight, TransferEngine.getInstance(), journal);
+        workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemonThreads("load-worker"));
+        timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("load-timer"));
+        try {
+            createCustomers();
+            System.out.printf("Load test: %s, %,d customers, %d s warm-up + %d s measured, journal %s%n",
+                    openLoop ? String.format("open loop at %,.0f ops/s", ratePerSecond) : "closed loop",
+                    customerCount, warmupSeconds, durationSeconds, durability);
+
+            long start = System.nanoTime();
+            measureStartNanos = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            measureEndNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+            running = true;
+            long[] lastCompleted = {0L};
+            timer.scheduleAtFixedRate(() -> printProgress(start, lastCompleted),
+                    PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            if (openLoop) {
+                runOpenLoop();
+            } else {
+                for (Customer customer : customers) {
+                    startNext(customer);
+                }
+                while (System.nanoTime() < measureEndNanos) {
+                    LockSupport.parkNanos(measureEndNanos - System.nanoTime());
+                }
+            }
+            running = false;
+            drain();
+            printReport();
+        } finally {
+            running = false;
+            timer.shutdownNow();
+            service.shutdown();
+            workers.shutdown();
+            journal.close();
+            if (temporaryJournal) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private void createCustomers() throws IOException {
+        CustomerDataAccess database = Database.getInstance();
+        customers = new Customer[customerCount];
+        for (int i = 0; i < customerCount; i++) {
+            String code = String.format("%s%06d", CUSTOMER_CODE_PREFIX, i);
+            Customer customer = new Customer("Load", "Customer " + i, "01/01/1990", "555-000-0000",
+                    "load" + i + "@example.com", code, "load");
+            int number = FIRST_ACCOUNT_NUMBER + i;
+            customer.addAccount(new Savings("S" + number, OPENING_BALANCE, 0.02, BRANCH));
+            customer.addAccount(new ChequeAccount("C" + number, OPENING_BALANCE, 500.00, BRANCH));
+            customer.addAccount(new InvestmentAccount("I" + number, OPENING_BALANCE, 0.04, BRANCH));
+            if (!database.addCustomer(customer)) {
+                throw new IOException("Could not add simulated customer " + code);
+            }
+            customers[i] = customer;
+        }
+    }
+
+    /**
+     * Closed loop: issues the customer's next operation, and the one after that when it completes.
+     */
+    private void startNext(Customer customer) {
+        if (!running) {
+            return;
+        }
+        Operation operation = pickOperation();
+        long start = System.nanoTime();
+        issue(operation, customer, start).whenCompleteAsync((ignored, error) -> {
+            if (thinkMillis > 0L) {
+                timer.schedule(() -> startNext(customer), thinkMillis, TimeUnit.MILLISECONDS);
+            } else {
+                startNext(customer);
+            }
+        }, workers);
+    }
+
+    /**
+     * Open loop: issues operations at their scheduled times until the end of the run.
+     * If issuing falls behind, the backlog is issued immediately with its original
+     * scheduled times, so the delay is charged to the latencies.
+     */
+    private void runOpenLoop() {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long issued = 0L;
+        while (true) {
+            long scheduled = start + (long) (issued * intervalNanos);
+            if (scheduled >= measureEndNanos) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (now < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+                continue;
+            }
+            Customer customer = customers[ThreadLocalRandom.current().nextInt(customers.length)];
+            issue(pickOperation(), customer, scheduled);
+            issued++;
+        }
+    }
+
+    /**
+     * Starts one operation and records its outcome and latency when it completes.
+     * @param startNanos The time the operation is considered to have started.
+     * @return A future completing (never exceptionally) when the outcome has been recorded.
+     */
+    private CompletableFuture<Void> issue(Operation operation, Customer customer, long startNanos) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Boolean> result;
+        try {
+            result = execute(operation, customer);
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        return result.handle((applied, error) -> {
+            long end = System.nanoTime();
+            boolean measured = startNanos >= measureStartNanos && startNanos < measureEndNanos;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (measured) {
+                    (cause instanceof RejectedExecutionException ? rejected : errors).get(operation).increment();
+                }
+            } else if (measured) {
+                latencies.get(operation).record(end - startNanos);
+                if (!applied) {
+                    declined.get(operation).increment();
+                }
+            }
+            completed.increment();
+            inFlight.decrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Runs one operation for {@code customer} on a random one of their accounts.
+     * @return A future with true if the operation was applied, false if it was declined (e.g. insufficient funds).
+     */
+    private CompletableFuture<Boolean> execute(Operation operation, Customer customer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account account = randomAccount(customer, random);
+        long cents = 1L + random.nextLong(MAX_AMOUNT_CENTS);
+        switch (operation) {
+            case DEPOSIT:
+                return service.deposit(account, cents, null).thenApply(TransactionService.Receipt::isApplied);
+            case WITHDRAW:
+                return service.withdraw(account, cents, null).thenApply(TransactionService.Receipt::isApplied);
+            case TRANSFER:
+                return service.transfer(account, transferDestination(customer, random).getAccountNumber(), cents)
+                        .thenApply(TransactionService.Receipt::isApplied);
+            case HISTORY:
+                return CompletableFuture.supplyAsync(() -> readHistory(account), workers);
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Looks up another random customer by code, as a transfer to a payee would, and picks one of their accounts.
+     */
+    private Account transferDestination(Customer source, ThreadLocalRandom random) {
+        Customer payee;
+        do {
+            String code = customers[random.nextInt(customers.length)].getCustomerCode();
+            payee = Database.getInstance().findCustomerByCode(code).orElse(source);
+        } while (payee == source);
+        return randomAccount(payee, random);
+    }
+
+    private static Account randomAccount(Customer customer, ThreadLocalRandom random) {
+        AccountType type = AccountType.values()[random.nextInt(AccountType.values().length)];
+        return customer.getAccount(type, 0);
+    }
+
+    /**
+     * Reads and formats the newest page of an account's history.
+     * @return true (a history read is never declined).
+     */
+    private boolean readHistory(Account account) {
+        String accountNumber = account.getAccountNumber();
+        int from = Math.max(0, journal.countForAccount(accountNumber) - HISTORY_PAGE_SIZE);
+        String[] page = new String[HISTORY_PAGE_SIZE];
+        int[] rows = {0};
+        journal.scanAccount(accountNumber, from, (position, record) -> {
+            page[rows[0]++] = record.format();
+            return rows[0] < HISTORY_PAGE_SIZE;
+        });
+        return true;
+    }
+
+    private Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight());
+        for (Operation operation : Operation.values()) {
+            roll -= weights[operation.ordinal()];
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation mix has no positive weight");
+    }
+
+    /**
+     * Waits for outstanding operations so they do not run into the report or journal close.
+     */
+    private void drain() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            System.err.println("Warning: " + inFlight.get() + " operation(s) still outstanding after "
+                    + DRAIN_TIMEOUT_SECONDS + " s; they are not in the report.");
+        }
+    }
+
+    // --- Reporting ---
+
+    private void printProgress(long start, long[] lastCompleted) {
+        long total = completed.sum();
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        System.out.printf("[%4d s] %,10.0f ops/s completed, %,d in flight%s%n", elapsed,
+                (total - lastCompleted[0]) / (double) PROGRESS_INTERVAL_SECONDS, inFlight.get(),
+                System.nanoTime() < measureStartNanos ? " (warm-up)" : "");
+        lastCompleted[0] = total;
+    }
+
+    private void printReport() {
+        LatencyHistogram all = new LatencyHistogram();
+        long allDeclined = 0L;
+        long allRejected = 0L;
+        long allErrors = 0L;
+        System.out.println();
+        System.out.printf("%-10s %10s %9s %9s %7s %10s %10s %10s %10s %10s %10s%n",
+                "Operation", "Count", "Declined", "Rejected", "Errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms", "Mean ms");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long operationDeclined = declined.get(operation).sum();
+            long operationRejected = rejected.get(operation).sum();
+            long operationErrors = errors.get(operation).sum();
+            printRow(operation.name(), histogram, operationDeclined, operationRejected, operationErrors);
+            all.add(histogram);
+            allDeclined += operationDeclined;
+            allRejected += operationRejected;
+            allErrors += operationErrors;
+        }
+        printRow("ALL", all, allDeclined, allRejected, allErrors);
+
+        double seconds = (measureEndNanos - measureStartNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("%nThroughput: %,.0f ops/s completed over %.0f s", all.getCount() / seconds, seconds);
+        if (openLoop) {
+            System.out.printf(" (offered %,.0f ops/s)", ratePerSecond);
+        }
+        System.out.println();
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long declined, long rejected, long errors) {
+        System.out.printf("%-10s %,10d %,9d %,9d %,7d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name, histogram.getCount(), declined, rejected, errors,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxNanos()),
+                histogram.getMeanNanos() / 1_000_000.0);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // --- Helpers ---
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not delete load test journal " + directory + ": " + e.getMessage());
+        }
+    }
+}
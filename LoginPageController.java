@@ -2,17 +2,11 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.Optional;
 
 // NOTE: Corrected class name to follow Java naming convention (PascalCase: LoginPageController)
@@ -51,6 +45,7 @@ public class LoginPageController {
      */
     @FXML
     private void handlelogin (ActionEvent event) {
+        long start = System.nanoTime();
 
         String customerCode = usernameField.getText().toUpperCase(); // Customer Codes are often uppercase
         String inputPassword = passwordField.getText();
@@ -71,6 +66,8 @@ public class LoginPageController {
 
                 messageLabel.setText("Login successful for " + customer.getFirstName() + "! Redirecting...");
 
+                Metrics.getInstance().record(Metrics.Operation.LOGIN, start, true);
+
                 // Navigate to the Main Menu
                 try {
                     loadMainMenu(event);
@@ -83,6 +80,7 @@ public class LoginPageController {
                 // --- FAILED LOGIN LOGIC (Incorrect Password) ---
                 messageLabel.setText("Error: Invalid password.");
                 passwordField.clear();
+                Metrics.getInstance().record(Metrics.Operation.LOGIN, start, false);
             }
 
         } else {
@@ -90,6 +88,7 @@ public class LoginPageController {
             messageLabel.setText("Error: Customer code not found.");
             usernameField.clear();
             passwordField.clear();
+            Metrics.getInstance().record(Metrics.Operation.LOGIN, start, false);
         }
     }
 
@@ -98,21 +97,13 @@ public class LoginPageController {
      */
     private void loadMainMenu(ActionEvent event) throws IOException {
         final String FXML_PATH = "/fxml/MainMenu.fxml";
-        URL fxmlUrl = getClass().getResource(FXML_PATH);
 
-        if (fxmlUrl == null) {
-            messageLabel.setText("FATAL ERROR: MainMenu.fxml not found at " + FXML_PATH + ". Check file location.");
-            throw new IOException("MainMenu.fxml not found at " + FXML_PATH);
+        try {
+            // Usually already preloaded at startup, so this is just a scene switch
+            SceneNavigator.getInstance().show(event, FXML_PATH, "Bank App - Main Menu");
+        } catch (IOException e) {
+            messageLabel.setText("FATAL ERROR: MainMenu.fxml could not be loaded from " + FXML_PATH + ". Check file location.");
+            throw e;
         }
-
-        Parent root = FXMLLoader.load(fxmlUrl);
-        Scene scene = new Scene(root);
-
-        // Get the Stage (window) from the event source
-        Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-
-        window.setScene(scene);
-        window.setTitle("Bank App - Main Menu");
-        window.show();
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.bankingsystem;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from encoded account ids (see AccountId) to accounts.
+ * Keys and values live in two parallel arrays with linear probing, so a lookup hashes
+ * a primitive, allocates nothing and touches one or two cache lines. An entry costs
+ * a long plus a reference (about 12-16 bytes at the 0.5-0.75 load band), compared with
+ * a HashMap node, boxed/String key and table slot.
+ *
+ * Not thread-safe; callers synchronize externally. The one exception is {@link #get}, which
+ * may run while a writer changes the map (e.g. under a StampedLock optimistic read): the
+ * result may then be wrong and must be validated, but it never throws or loops forever.
+ */
+public final class LongAccountMap {
+
+    private static final long EMPTY = -1L; // AccountId.NONE, never a valid key
+    private static final int MIN_CAPACITY = 16;
+    private static final float MAX_LOAD = 0.75f;
+
+    private long[] keys;
+    private Account[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongAccountMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize The number of entries to size the table for.
+     */
+    public LongAccountMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * @param id An encoded account id.
+     * @return The account stored under {@code id}, or null if there is none.
+     */
+    public Account get(long id) {
+        if (id < 0) {
+            return null;
+        }
+        // Read each array once and derive the mask from it, so a concurrent resize cannot mix tables
+        long[] keys = this.keys;
+        Account[] values = this.values;
+        int mask = keys.length - 1;
+        int slot = (int) AccountId.hash(id) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            long key = keys[slot];
+            if (key == id) {
+                return slot < values.length ? values[slot] : null;
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null; // only reachable while racing a writer
+    }
+
+    /**
+     * Stores {@code account} under {@code id}.
+     * @param id A valid (non-negative) encoded account id.
+     * @param account The account.
+     * @return The account previously stored under {@code id}, or null.
+     */
+    public Account put(long id, Account account) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid account id: " + id);
+        }
+        int slot = slotOf(id);
+        while (true) {
+            long key = keys[slot];
+            if (key == id) {
+                Account previous = values[slot];
+                values[slot] = account;
+                return previous;
+            }
+            if (key == EMPTY) {
+                keys[slot] = id;
+                values[slot] = account;
+                if (++size > resizeThreshold) {
+                    resize(keys.length << 1);
+                }
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the entry for {@code id}, if present.
+     * @param id An encoded account id.
+     * @return The removed account, or null.
+     */
+    public Account remove(long id) {
+        if (id < 0) {
+            return null;
+        }
+        int slot = slotOf(id);
+        while (true) {
+            long key = keys[slot];
+            if (key == EMPTY) {
+                return null;
+            }
+            if (key == id) {
+                Account previous = values[slot];
+                deleteSlot(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long id) {
+        return get(id) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // --- Internals ---
+
+    private int slotOf(long id) {
+        return (int) AccountId.hash(id) & mask;
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the probe run into the gap so
+     * lookups never need tombstones.
+     */
+    private void deleteSlot(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slotOf(key);
+            // Move the entry if its home slot is not within (gap, slot] cyclically
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Account[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slotOf(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Account[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * MAX_LOAD);
+    }
+}
@@ -6,16 +6,96 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 public class Main extends Application {
 
+    private static final int INTEREST_PARTITIONS = 64;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private InterestScheduler interestScheduler;
+    private FeeSweepScheduler feeSweepScheduler;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // 1. Load the FXML file for the login page
+        // 1. Restore the changes journaled after the last snapshot, before anything can change a balance
+        try {
+            long replayed = Database.getInstance().recoverFromJournal(TransactionJournal.getInstance());
+            if (replayed != 0L) {
+                System.out.println("Recovered " + replayed + " journaled transactions.");
+            }
+        } catch (IOException e) {
+            System.err.println("Transaction journal not replayed: " + e.getMessage());
+        }
+
+        // 2. Load the FXML file for the login page
         Parent root = FXMLLoader.load(getClass().getResource("/fxml/LoginPage.fxml"));
 
         primaryStage.setTitle("Bank App Login");
         primaryStage.setScene(new Scene(root));
         primaryStage.show();
+
+        // 3. Warm up the pages reached after login while the user is typing their credentials
+        SceneNavigator.getInstance().preload(
+                "/fxml/MainMenu.fxml",
+                "/fxml/AccountsPage.fxml",
+                "/fxml/SavingsAccountPage.fxml",
+                "/fxml/ChequeAccountPage.fxml",
+                "/fxml/InvestmentAccountPage.fxml",
+                "/fxml/DepositPage.fxml",
+                "/fxml/WithdrawPage.fxml",
+                "/fxml/transfer .fxml",
+                "/fxml/ViewTransactions.fxml",
+                "/fxml/SettingsPage.fxml");
+
+        // 4. Post any monthly interest that fell due while the application was not running
+        try {
+            interestScheduler = new InterestScheduler(Database.getInstance(), TransactionJournal.getInstance(),
+                    Paths.get("interest-scheduler.properties"), INTEREST_PARTITIONS);
+            interestScheduler.start();
+        } catch (IOException e) {
+            System.err.println("Interest scheduler not started: " + e.getMessage());
+        }
+
+        // 5. Charge the end-of-day fees (Savings minimum balance, Cheque overdraft) once a day
+        try {
+            feeSweepScheduler = new FeeSweepScheduler(Database.getInstance(), TransactionJournal.getInstance(),
+                    Paths.get("fee-sweep.properties"));
+            feeSweepScheduler.start();
+        } catch (IOException e) {
+            System.err.println("Fee sweep scheduler not started: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (interestScheduler != null) {
+            interestScheduler.close();
+        }
+        if (feeSweepScheduler != null) {
+            feeSweepScheduler.close();
+        }
+
+        // Let accepted deposits, withdrawals and transfers finish (and be journaled) first
+        try {
+            if (!TransactionService.shutdownInstance(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Transactions still running at shutdown; saving the current state anyway.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Persist customers and balances so the next start resumes from them
+        Database.getInstance().saveSnapshot();
+
+        // Flush the journal segments and the per-account index entries still buffered
+        try {
+            TransactionJournal.closeInstance();
+        } catch (IOException e) {
+            System.err.println("Could not close the transaction journal: " + e.getMessage());
+        }
     }
 
     public static void main(String[] args) {
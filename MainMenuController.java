@@ -2,15 +2,9 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URL;
 
 public class MainMenuController {
 
@@ -25,21 +19,9 @@ public class MainMenuController {
      */
     private void switchScene(ActionEvent event, String fxmlFileName, String title) {
         final String FXML_PATH = "/fxml/" + fxmlFileName;
-        URL fxmlUrl = getClass().getResource(FXML_PATH);
-
-        if (fxmlUrl == null) {
-            System.err.println("CRITICAL ERROR: FXML file not found! Expected path: " + FXML_PATH);
-            return;
-        }
 
         try {
-            Parent root = FXMLLoader.load(fxmlUrl);
-            Scene scene = new Scene(root);
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle(title);
-            window.show();
+            SceneNavigator.getInstance().show(event, FXML_PATH, title);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -82,6 +64,8 @@ public class MainMenuController {
      */
     @FXML
     private void handleLogout(ActionEvent event) {
+        // Drop the cached pages so nothing from this session is shown to the next user
+        SceneNavigator.getInstance().clear();
         // Navigates back to the login page
         switchScene(event, "login.fxml", "Bank App Login");
     }
@@ -0,0 +1,121 @@
+package com.bankingsystem;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide operation metrics: success/failure counters and latency histograms
+ * for each {@link Operation}, published as JMX MXBeans under
+ * {@code com.bankingsystem:type=Operation,name=<operation>} so they can be watched live
+ * with jconsole, VisualVM or any JMX collector.
+ *
+ * Typical use: take {@code System.nanoTime()} before the operation and call
+ * {@link #record(Operation, long, boolean)} when it completes.
+ */
+public final class Metrics {
+
+    /**
+     * The instrumented operations.
+     */
+    public enum Operation {
+        DEPOSIT("Deposit"),
+        WITHDRAW("Withdraw"),
+        TRANSFER("Transfer"),
+        JOURNAL_APPEND("JournalAppend"),
+        HISTORY_LOAD("HistoryLoad"),
+        LOGIN("Login"),
+        NAVIGATION("Navigation");
+
+        private final String beanName;
+
+        Operation(String beanName) {
+            this.beanName = beanName;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+    }
+
+    static final String DOMAIN = "com.bankingsystem";
+
+    private static final long WINDOW_SECONDS = 60L;
+
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+
+    private Metrics() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationMetrics());
+        }
+        registerBeans();
+
+        ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        windowTimer.scheduleAtFixedRate(() -> operations.values().forEach(OperationMetrics::rotate),
+                WINDOW_SECONDS, WINDOW_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Initialization-on-demand holder (like Database): recorded into on hot paths, so no lock on access
+    private static final class Holder {
+        static final Metrics INSTANCE = new Metrics();
+    }
+
+    public static Metrics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // --- Recording ---
+
+    /**
+     * Records a completed operation.
+     * @param operation The operation.
+     * @param startNanos The System.nanoTime() taken when it started.
+     * @param success true if it succeeded, false if it was declined or failed.
+     */
+    public void record(Operation operation, long startNanos, boolean success) {
+        operations.get(operation).record(System.nanoTime() - startNanos, success);
+    }
+
+    /**
+     * Records an operation that was refused before it started.
+     * @param operation The operation.
+     */
+    public void recordRejected(Operation operation) {
+        operations.get(operation).recordRejected();
+    }
+
+    /**
+     * @param operation The operation.
+     * @return Its counters and histograms.
+     */
+    public OperationMetrics get(Operation operation) {
+        return operations.get(operation);
+    }
+
+    // --- JMX ---
+
+    private void registerBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<Operation, OperationMetrics> entry : operations.entrySet()) {
+            try {
+                ObjectName name = new ObjectName(DOMAIN + ":type=Operation,name=" + entry.getKey().getBeanName());
+                server.registerMBean(entry.getValue(), name);
+            } catch (InstanceAlreadyExistsException e) {
+                System.err.println("Metrics MBean already registered: " + e.getMessage());
+            } catch (JMException e) {
+                System.err.println("Could not register metrics MBean for " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+}
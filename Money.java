@@ -0,0 +1,138 @@
+package com.bankingsystem;
+
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on primitive {@code long} minor units (cents).
+ * All methods are static and allocation-free so they can be used on the hot
+ * deposit/withdraw/interest paths. Rates are expressed in parts-per-million
+ * (e.g. 0.05 == 50_000 ppm), which keeps every configured rate exact.
+ */
+public final class Money {
+
+    /** Number of minor units (cents) in one major unit. */
+    public static final long CENTS_PER_UNIT = 100L;
+
+    /** Scale used for rates: 1.0 == RATE_SCALE ppm. */
+    public static final long RATE_SCALE = 1_000_000L;
+
+    private Money() {
+        // Utility class
+    }
+
+    // --- Conversion ---
+
+    /**
+     * Converts a decimal amount (as typed by a user, e.g. 100.25) into cents,
+     * rounding to the nearest cent so that binary representation noise never leaks into the balance.
+     * @param amount The decimal amount.
+     * @return The amount in cents.
+     */
+    public static long fromAmount(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    /**
+     * Converts cents back to a decimal amount for display purposes only.
+     * @param cents The amount in cents.
+     * @return The decimal amount.
+     */
+    public static double toAmount(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Converts a decimal rate (e.g. 0.05 for 5%) into parts-per-million.
+     * @param rate The decimal rate.
+     * @return The rate in ppm.
+     */
+    public static long rateOf(double rate) {
+        return Math.round(rate * RATE_SCALE);
+    }
+
+    // --- Arithmetic ---
+
+    /**
+     * Computes {@code cents * ratePpm / RATE_SCALE} rounded with the given mode.
+     * @param cents The base amount in cents.
+     * @param ratePpm The rate in parts-per-million.
+     * @param mode The rounding mode applied to the fractional cent.
+     * @return The resulting amount in cents.
+     * @throws ArithmeticException if the intermediate product overflows a long.
+     */
+    public static long applyRate(long cents, long ratePpm, RoundingMode mode) {
+        return divide(Math.multiplyExact(cents, ratePpm), RATE_SCALE, mode);
+    }
+
+    /**
+     * Computes {@code cents * ratePpm / (RATE_SCALE * periods)}, i.e. the share of an
+     * annual rate earned over one of {@code periods} equal periods (12 for monthly).
+     * Dividing once keeps monthly rates such as 7%/12 exact.
+     * @param cents The base amount in cents.
+     * @param annualRatePpm The annual rate in parts-per-million.
+     * @param periods The number of periods per year.
+     * @param mode The rounding mode applied to the fractional cent.
+     * @return The resulting amount in cents.
+     */
+    public static long applyPeriodicRate(long cents, long annualRatePpm, int periods, RoundingMode mode) {
+        return divide(Math.multiplyExact(cents, annualRatePpm), RATE_SCALE * periods, mode);
+    }
+
+    /**
+     * Divides {@code numerator} by a positive {@code divisor}, rounding the quotient
+     * according to {@code mode}. Uses floor division so that negative balances
+     * (e.g. an overdrawn Cheque account) round consistently.
+     * @param numerator The dividend.
+     * @param divisor The divisor, must be positive.
+     * @param mode The rounding mode.
+     * @return The rounded quotient.
+     * @throws ArithmeticException if mode is UNNECESSARY and the division is inexact.
+     */
+    public static long divide(long numerator, long divisor, RoundingMode mode) {
+        long quotient = Math.floorDiv(numerator, divisor);
+        long remainder = numerator - quotient * divisor; // 0 <= remainder < divisor
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Compare twice the remainder against the divisor without overflowing
+        long half = divisor - remainder;
+        int cmpHalf = Long.compare(remainder, half); // <0 below half, 0 exactly half, >0 above half
+
+        switch (mode) {
+            case FLOOR:
+                return quotient;
+            case CEILING:
+                return quotient + 1;
+            case DOWN:
+                return numerator < 0 ? quotient + 1 : quotient;
+            case UP:
+                return numerator < 0 ? quotient : quotient + 1;
+            case HALF_UP:
+                // Ties go away from zero
+                return (cmpHalf > 0 || (cmpHalf == 0 && numerator > 0)) ? quotient + 1 : quotient;
+            case HALF_DOWN:
+                // Ties go towards zero
+                return (cmpHalf > 0 || (cmpHalf == 0 && numerator < 0)) ? quotient + 1 : quotient;
+            case HALF_EVEN:
+                return (cmpHalf > 0 || (cmpHalf == 0 && (quotient & 1L) != 0)) ? quotient + 1 : quotient;
+            case UNNECESSARY:
+            default:
+                throw new ArithmeticException("Rounding necessary for " + numerator + " / " + divisor);
+        }
+    }
+
+    // --- Formatting helpers ---
+
+    /**
+     * Formats cents as a plain two-decimal string (e.g. "1250.75") without going through double.
+     * @param cents The amount in cents.
+     * @return The formatted amount.
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long units = abs / CENTS_PER_UNIT;
+        long fraction = abs % CENTS_PER_UNIT;
+        return (cents < 0 ? "-" : "") + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bankingsystem;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for one operation.
+ * Counters are LongAdders and histograms are fixed-size LatencyHistograms, so recording
+ * never locks or allocates. Besides the since-startup histogram, a window histogram is
+ * swapped out by Metrics at a fixed interval to provide "recent" percentiles.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private volatile LatencyHistogram window = new LatencyHistogram();
+    private volatile LatencyHistogram lastWindow = new LatencyHistogram();
+
+    OperationMetrics() {
+    }
+
+    // --- Recording ---
+
+    /**
+     * Records a completed operation.
+     * @param nanos How long it took.
+     * @param success true if it succeeded, false if it was declined or failed.
+     */
+    public void record(long nanos, boolean success) {
+        (success ? successes : failures).increment();
+        total.record(nanos);
+        window.record(nanos);
+    }
+
+    /**
+     * Records an operation refused before it started; it has no latency.
+     */
+    public void recordRejected() {
+        rejections.increment();
+    }
+
+    /**
+     * Ends the current window: its histogram becomes the "recent" one and a new window starts.
+     * A record racing with the swap may land in either window.
+     */
+    void rotate() {
+        LatencyHistogram finished = window;
+        window = new LatencyHistogram();
+        lastWindow = finished;
+    }
+
+    // --- OperationMetricsMXBean ---
+
+    @Override
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public LatencySnapshot getTotalLatency() {
+        return LatencySnapshot.of(total);
+    }
+
+    @Override
+    public LatencySnapshot getRecentLatency() {
+        return LatencySnapshot.of(lastWindow);
+    }
+
+    @Override
+    public double getRecentP99Millis() {
+        return getRecentLatency().getP99Millis();
+    }
+}
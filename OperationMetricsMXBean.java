@@ -0,0 +1,28 @@
+package com.bankingsystem;
+
+/**
+ * JMX view of one instrumented operation, registered by Metrics as
+ * {@code com.bankingsystem:type=Operation,name=<operation>}.
+ * "Recent" values cover the last completed window (one minute), so a p99 regression
+ * shows up within a minute instead of being diluted by the whole uptime.
+ */
+public interface OperationMetricsMXBean {
+
+    /** @return Operations that completed successfully since startup. */
+    long getSuccessCount();
+
+    /** @return Operations that were declined or failed since startup. */
+    long getFailureCount();
+
+    /** @return Operations refused before they started (back-pressure) since startup. */
+    long getRejectedCount();
+
+    /** @return Latency percentiles since startup. */
+    LatencySnapshot getTotalLatency();
+
+    /** @return Latency percentiles of the last completed window. */
+    LatencySnapshot getRecentLatency();
+
+    /** @return The p99 latency of the last completed window, for charting in a JMX console. */
+    double getRecentP99Millis();
+}
@@ -5,8 +5,9 @@ package com.bankingsystem;
  */
 public class Savings extends Account {
     private double annualInterestRate;
-    private static final double MIN_BALANCE_FEE = 10.00;
-    private static final double MIN_BALANCE_THRESHOLD = 100.00;
+    private final long annualInterestRatePpm;
+    private static final long MIN_BALANCE_FEE = 10_00L; // $10.00 in cents
+    private static final long MIN_BALANCE_THRESHOLD = 100_00L; // $100.00 in cents
 
     /**
      * Constructor for Savings.
@@ -17,54 +18,92 @@ public class Savings extends Account {
      * @param branch The branch where the account is held.
      */
     public Savings(String accountNumber, double initialBalance, double annualInterestRate, String branch) {
-        // CALL to Account constructor, now requiring branch
-        super(accountNumber, branch);
+        // CALL to Account constructor, now requiring branch and the opening balance
+        super(accountNumber, branch, Money.fromAmount(initialBalance));
 
-        // Set the initial balance manually
-        this.balance = initialBalance;
         this.annualInterestRate = annualInterestRate;
+        this.annualInterestRatePpm = Money.rateOf(annualInterestRate);
     }
 
+    /**
+     * Fixed-point constructor, used when restoring accounts (e.g. from a DatabaseSnapshot)
+     * so the stored cents and rate are not rounded through a double.
+     * @param accountNumber Unique account number.
+     * @param branch The branch where the account is held.
+     * @param initialBalanceCents Starting balance, in cents.
+     * @param annualInterestRatePpm The annual interest rate in parts-per-million (e.g. 20_000 for 2%).
+     */
+    public Savings(String accountNumber, String branch, long initialBalanceCents, long annualInterestRatePpm) {
+        super(accountNumber, branch, initialBalanceCents);
+
+        this.annualInterestRate = annualInterestRatePpm / (double) Money.RATE_SCALE;
+        this.annualInterestRatePpm = annualInterestRatePpm;
+    }
+
+    /**
+     * Withdraws funds as a single atomic step; the sufficient-funds check is evaluated
+     * against the balance that is replaced. The minimum-balance fee is not charged here
+     * but by the end-of-day FeeSweepEngine (see {@link #endOfDayFeeCents(long)}).
+     */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
-            System.err.println("Withdrawal amount must be positive.");
-            return false;
+    protected long performWithdrawal(long cents) {
+        if (cents <= 0) {
+            EventLogger.getInstance().log(EventLogger.Type.WITHDRAWAL_INVALID, this.accountNumber, cents, getBalanceCents());
+            return REJECTED;
         }
 
-        // Basic check for sufficient funds
-        if (this.balance >= amount) {
-            this.balance -= amount;
-            System.out.printf("Withdrawal of %.2f successful from Savings Account %s. Remaining balance: $%.2f%n",
-                    amount, this.accountNumber, this.balance);
+        while (true) {
+            long current = getBalanceCents();
 
-            // Check for minimum balance fee immediately after withdrawal
-            if (this.balance < MIN_BALANCE_THRESHOLD) {
-                this.balance -= MIN_BALANCE_FEE;
-                System.out.printf("WARNING: Balance fell below $%.2f. Minimum balance fee of $%.2f applied.%n",
-                        MIN_BALANCE_THRESHOLD, MIN_BALANCE_FEE);
+            // Basic check for sufficient funds
+            if (current < cents) {
+                EventLogger.getInstance().log(EventLogger.Type.INSUFFICIENT_FUNDS, this.accountNumber, cents, current);
+                return REJECTED;
             }
-            return true;
-        } else {
-            System.err.printf("Withdrawal of %.2f failed. Insufficient funds in Savings Account %s. Current balance: $%.2f%n",
-                    amount, this.accountNumber, this.balance);
-            return false;
+
+            long updated = current - cents;
+            if (compareAndSetBalance(current, updated)) {
+                EventLogger.getInstance().log(EventLogger.Type.WITHDRAWN, this.accountNumber, cents, updated);
+                return updated;
+            }
+            onContention();
         }
     }
 
+    /**
+     * Minimum-balance rule: a balance below $100.00 at the end of the day is charged a
+     * $10.00 fee, capped at the balance so the fee never overdraws the account.
+     */
+    @Override
+    public long endOfDayFeeCents(long balanceCents) {
+        if (balanceCents >= MIN_BALANCE_THRESHOLD || balanceCents <= 0) {
+            return 0L;
+        }
+        return Math.min(MIN_BALANCE_FEE, balanceCents);
+    }
+
+    @Override
+    public String getEndOfDayFeeDescription() {
+        return "Minimum balance fee";
+    }
+
     /**
      * Applies annual interest (simplified monthly application for demonstration).
+     * Interest is rounded half-even to the cent.
      */
     @Override
     public void applyInterest() {
-        double monthlyRate = this.annualInterestRate / 12.0;
-        double interestGained = this.balance * monthlyRate;
-        this.balance += interestGained;
-        System.out.printf("Monthly interest applied (%.4f%%). Gained $%.2f. New balance: $%.2f%n",
-                monthlyRate * 100, interestGained, this.balance);
+        long interestGained = creditMonthlyInterest(this.annualInterestRatePpm);
+        EventLogger.getInstance().log(EventLogger.Type.INTEREST_APPLIED, this.accountNumber, interestGained,
+                getBalanceCents(), this.annualInterestRatePpm);
     }
 
     public double getAnnualInterestRate() {
         return annualInterestRate;
     }
+
+    @Override
+    public long getAnnualRatePpm() {
+        return annualInterestRatePpm;
+    }
 }
\ No newline at end of file
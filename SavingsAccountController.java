@@ -2,18 +2,11 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.net.URL; // Added import for URL
 import java.util.Optional;
 
 /**
@@ -21,7 +14,7 @@ import java.util.Optional;
  * logged-in customer's Savings Account. Simplified navigation without using
  * an ActionControllerBase interface.
  */
-public class SavingsAccountController {
+public class SavingsAccountController implements SceneNavigator.Refreshable {
 
     // --- FXML Fields ---
     @FXML private TextArea savingsTextArea;
@@ -40,10 +33,20 @@ public class SavingsAccountController {
 
 
     /**
-     * Called automatically after the FXML file is loaded.
+     * Called automatically after the FXML file is loaded (once, as the view is cached).
      */
     @FXML
     public void initialize() {
+        savingsTextArea.setEditable(false);
+    }
+
+    /**
+     * Called each time the page is shown, so the balance is never stale.
+     */
+    @Override
+    public void refresh() {
+        savingsAccount = null;
+
         // 1. Get the currently logged-in customer
         currentCustomer = LoginPageController.getLoggedInCustomer();
 
@@ -65,8 +68,6 @@ public class SavingsAccountController {
             balanceValueLabel.setText("N/A");
             savingsTextArea.setText("No Savings Account found for this customer.");
         }
-
-        savingsTextArea.setEditable(false);
     }
 
     /**
@@ -136,13 +137,7 @@ public class SavingsAccountController {
     @FXML
     private void handleExit(ActionEvent event) {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/AccountsPage.fxml"));
-            Scene scene = new Scene(root);
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle("Bank App - My Accounts");
-            window.show();
+            SceneNavigator.getInstance().show(event, "/fxml/AccountsPage.fxml", "Bank App - My Accounts");
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Error loading AccountsPage.fxml.");
@@ -150,53 +145,23 @@ public class SavingsAccountController {
     }
 
     /**
-     * Helper method to load a new FXML scene and pass the account data to the destination controller.
-     * Includes a check for the resource URL to provide a clearer error message for classpath issues.
+     * Helper method to show an FXML page and pass the account data to the destination controller.
      */
     private <T> void navigateAndSetupController(ActionEvent event, String fxmlPath, String title, Class<T> controllerClass) {
         try {
-            // CRITICAL STEP: Get the resource URL
-            URL fxmlUrl = getClass().getResource(fxmlPath);
-
-            if (fxmlUrl == null) {
-                System.err.println("FATAL ERROR: FXML resource not found!");
-                System.err.println("Expected path: " + fxmlPath);
-                System.err.println("1. Check that 'transfer.fxml' is located inside 'src/main/resources/fxml/'.");
-                System.err.println("2. Ensure the file name and path capitalization are correct.");
-                return; // Stop execution if resource is not found
+            // The navigator reports a missing FXML resource as an IOException
+            SceneNavigator.View view = SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
+
+            // Pass the Savings object (which is also an Account) to the destination page
+            T controller = view.getController();
+            if (!AccountContext.pass(controller, savingsAccount, SAVINGS_ACCOUNT_TYPE)) {
+                System.err.println("NAVIGATION ERROR: " + controllerClass.getName()
+                        + " does not accept an account (implement AccountContextAware).");
             }
 
-            FXMLLoader loader = new FXMLLoader(fxmlUrl);
-            Parent root = loader.load();
-
-            // Get the controller instance
-            T controller = loader.getController();
-
-            if (controller != null) {
-                // Use reflection to find the setSourceAccount method
-                Method setupMethod = controller.getClass().getMethod("setSourceAccount", Account.class, String.class);
-
-                // Invoke the method, passing the Savings object (which is also an Account)
-                setupMethod.invoke(controller, savingsAccount, SAVINGS_ACCOUNT_TYPE);
-            }
-
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
-
-        } catch (NoSuchMethodException e) {
-            // Reflection error: the destination controller is missing the required setup method
-            System.err.println("NAVIGATION ERROR: The destination controller is missing the required setup method.");
-            System.err.println("Expected method signature in " + controllerClass.getName() + ":");
-            System.err.println("    public void setSourceAccount(com.bankingsystem.Account account, java.lang.String accountType)");
-            e.printStackTrace();
-        } catch (Exception e) {
+        } catch (IOException e) {
             e.printStackTrace();
-            System.err.println("General Error navigating to " + fxmlPath + ": " + e.getMessage());
+            System.err.println("Error navigating to " + fxmlPath + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
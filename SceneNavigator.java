@@ -0,0 +1,235 @@
+package com.bankingsystem;
+
+import javafx.event.ActionEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Central page navigation with a cache of loaded views.
+ * Each FXML file is parsed (and its controller created) only once; afterwards its
+ * Scene is reused, so switching pages is just a setScene call. Views can be preloaded
+ * in the background at startup so even the first visit is fast.
+ *
+ * Because a cached controller's initialize() only runs once, controllers that show
+ * per-visit data implement {@link Refreshable}; its refresh() is called every time the
+ * view is shown. The cache is cleared on logout so no view keeps a previous
+ * customer's data, and the preloaded pages are then built again for the next user.
+ * Uses the Singleton pattern (like Database) for the application-wide instance.
+ */
+public class SceneNavigator {
+
+    /**
+     * Implemented by controllers whose page must be brought up to date each time it is shown.
+     * Called on the FX thread, before the caller passes any navigation context (such as
+     * setSourceAccount).
+     */
+    public interface Refreshable {
+        void refresh();
+    }
+
+    /**
+     * A loaded page: its scene graph, controller and how long it took to load.
+     */
+    public static final class View {
+        private final Scene scene;
+        private final Object controller;
+        private final long loadNanos;
+
+        View(Scene scene, Object controller, long loadNanos) {
+            this.scene = scene;
+            this.controller = controller;
+            this.loadNanos = loadNanos;
+        }
+
+        public Scene getScene() {
+            return scene;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getController() {
+            return (T) controller;
+        }
+
+        public long getLoadMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(loadNanos);
+        }
+    }
+
+    private static SceneNavigator instance;
+
+    // Futures rather than views, so a page being preloaded is awaited instead of loaded twice
+    private final Map<String, CompletableFuture<View>> views = new ConcurrentHashMap<>();
+    private final Map<String, Long> loadMillis = new ConcurrentHashMap<>();
+    // Every page ever requested for preloading, so clear() can warm them up again
+    private final Set<String> preloadPaths = ConcurrentHashMap.newKeySet();
+    private final ExecutorService preloader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "scene-preload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SceneNavigator() {
+    }
+
+    public static synchronized SceneNavigator getInstance() {
+        if (instance == null) {
+            instance = new SceneNavigator();
+        }
+        return instance;
+    }
+
+    // --- Navigation ---
+
+    /**
+     * Shows a page in the window that raised {@code event}.
+     * @param event The event whose source node identifies the window.
+     * @param fxmlPath The FXML resource path (e.g. "/fxml/AccountsPage.fxml").
+     * @param title The window title.
+     * @return The page's view, whose controller can be given further context.
+     * @throws IOException if the FXML cannot be found or loaded.
+     */
+    public View show(ActionEvent event, String fxmlPath, String title) throws IOException {
+        Stage window = (Stage) ((Node) event.getSource()).getScene().getWindow();
+        return show(window, fxmlPath, title);
+    }
+
+    /**
+     * Shows a page in {@code window}, loading it on first use and reusing it afterwards.
+     * Must be called on the FX thread.
+     * @param window The window to show the page in.
+     * @param fxmlPath The FXML resource path.
+     * @param title The window title.
+     * @return The page's view.
+     * @throws IOException if the FXML cannot be found or loaded.
+     */
+    public View show(Stage window, String fxmlPath, String title) throws IOException {
+        long start = System.nanoTime();
+        View view;
+        try {
+            view = getView(fxmlPath);
+        } catch (IOException e) {
+            Metrics.getInstance().record(Metrics.Operation.NAVIGATION, start, false);
+            throw e;
+        }
+        if (view.controller instanceof Refreshable) {
+            ((Refreshable) view.controller).refresh();
+        }
+        window.setScene(view.scene);
+        window.setTitle(title);
+        window.show();
+        Metrics.getInstance().record(Metrics.Operation.NAVIGATION, start, true);
+        return view;
+    }
+
+    /**
+     * Starts loading pages in the background so later navigation finds them ready.
+     * Pages already loaded or loading are skipped; failures are reported and the page
+     * is simply loaded again on first use.
+     * @param fxmlPaths The FXML resource paths to preload.
+     */
+    public void preload(String... fxmlPaths) {
+        for (String fxmlPath : fxmlPaths) {
+            preloadPaths.add(fxmlPath);
+            CompletableFuture<View> future = new CompletableFuture<>();
+            if (views.putIfAbsent(fxmlPath, future) == null) {
+                preloader.execute(() -> complete(fxmlPath, future));
+            }
+        }
+    }
+
+    /**
+     * Drops every cached page (e.g. on logout) so they are rebuilt for the next user,
+     * and starts preloading the preloaded pages again in the background.
+     */
+    public void clear() {
+        views.clear();
+        preload(preloadPaths.toArray(new String[0]));
+    }
+
+    /**
+     * @return How long each page took to load, in milliseconds, in no particular order.
+     */
+    public Map<String, Long> getLoadTimings() {
+        return new LinkedHashMap<>(loadMillis);
+    }
+
+    // --- Loading ---
+
+    private View getView(String fxmlPath) throws IOException {
+        CompletableFuture<View> future = views.get(fxmlPath);
+        if (future == null) {
+            CompletableFuture<View> created = new CompletableFuture<>();
+            future = views.putIfAbsent(fxmlPath, created);
+            if (future == null) {
+                future = created;
+                complete(fxmlPath, created); // load right here on the calling thread
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            views.remove(fxmlPath, future); // allow a retry on the next navigation
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not load " + fxmlPath, e.getCause());
+        }
+    }
+
+    private void complete(String fxmlPath, CompletableFuture<View> future) {
+        try {
+            future.complete(load(fxmlPath));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading " + fxmlPath + ": " + e.getMessage());
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Parses the FXML and builds its Scene. Scene graphs may be built off the FX thread
+     * as long as they are not attached to a showing window, which is what makes preloading possible.
+     */
+    private View load(String fxmlPath) throws IOException {
+        BankingEvents.FxmlLoad event = new BankingEvents.FxmlLoad();
+        event.begin();
+        Object controller = null;
+        try {
+            URL fxmlUrl = SceneNavigator.class.getResource(fxmlPath);
+            if (fxmlUrl == null) {
+                throw new IOException("FXML resource not found: " + fxmlPath + " (check the path and capitalization)");
+            }
+            long start = System.nanoTime();
+            FXMLLoader loader = new FXMLLoader(fxmlUrl);
+            Parent root = loader.load();
+            controller = loader.getController();
+            View view = new View(new Scene(root), controller, System.nanoTime() - start);
+
+            loadMillis.put(fxmlPath, view.getLoadMillis());
+            return view;
+        } finally {
+            // Committed for failed loads too, with succeeded=false
+            event.end();
+            if (event.shouldCommit()) {
+                event.fxmlPath = fxmlPath;
+                event.controller = controller == null ? null : controller.getClass().getSimpleName();
+                event.succeeded = controller != null;
+                event.commit();
+            }
+        }
+    }
+}
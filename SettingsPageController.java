@@ -2,16 +2,10 @@ package com.bankingsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URL;
 
 public class SettingsPageController {
 
@@ -31,21 +25,9 @@ public class SettingsPageController {
      */
     private void switchScene(ActionEvent event, String fxmlFileName, String title) {
         final String FXML_PATH = "/fxml/" + fxmlFileName;
-        URL fxmlUrl = getClass().getResource(FXML_PATH);
-
-        if (fxmlUrl == null) {
-            System.err.println("CRITICAL ERROR: FXML file not found! Expected path: " + FXML_PATH);
-            return;
-        }
 
         try {
-            Parent root = FXMLLoader.load(fxmlUrl);
-            Scene scene = new Scene(root);
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle(title);
-            window.show();
+            SceneNavigator.getInstance().show(event, FXML_PATH, title);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,127 @@
+package com.bankingsystem;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lazily loaded, paged view of one account's transaction history, used as the backing
+ * list of a virtualized ListView. Only the size is known up front; a row's text is
+ * formatted from the journal the first time the ListView asks for it, a page at a time.
+ * A bounded LRU page cache keeps memory constant regardless of history size, and the
+ * page after the one just loaded is prefetched in the background to keep scrolling smooth.
+ */
+public class TransactionHistoryList extends ObservableListBase<String> {
+
+    private static final int PAGE_SIZE = 128;
+    private static final int MAX_CACHED_PAGES = 16;
+
+    // One shared background thread for all history views; prefetching is best-effort
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "history-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TransactionJournal journal;
+    private final String accountNumber;
+    private int size;
+
+    // LRU page cache (access-ordered); guarded by itself because the prefetcher also fills it
+    private final Map<Integer, String[]> pages = new LinkedHashMap<Integer, String[]>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    /**
+     * @param journal The journal holding the records.
+     * @param accountNumber The account whose history is shown.
+     */
+    public TransactionHistoryList(TransactionJournal journal, String accountNumber) {
+        this.journal = journal;
+        this.accountNumber = accountNumber;
+        this.size = journal.countForAccount(accountNumber);
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int pageNumber = index / PAGE_SIZE;
+        String[] page = cachedPage(pageNumber);
+        if (page == null) {
+            page = loadPage(pageNumber);
+            prefetch(pageNumber + 1);
+        }
+        String line = page[index - pageNumber * PAGE_SIZE];
+        // A page loaded before the history grew can be short; reload it in that case
+        return line != null ? line : loadPage(pageNumber)[index - pageNumber * PAGE_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grows the list to {@code newSize} rows when new records have been appended for the
+     * account, notifying the ListView of the added rows only. Must be called on the FX thread.
+     * @param newSize The account's current record count.
+     */
+    public void growTo(int newSize) {
+        if (newSize <= size) {
+            return;
+        }
+        int oldSize = size;
+        beginChange();
+        size = newSize;
+        nextAdd(oldSize, newSize);
+        endChange();
+    }
+
+    // --- Paging ---
+
+    private String[] cachedPage(int pageNumber) {
+        synchronized (pages) {
+            return pages.get(pageNumber);
+        }
+    }
+
+    /**
+     * Formats the records of one page from the journal and caches them.
+     */
+    private String[] loadPage(int pageNumber) {
+        long start = System.nanoTime();
+        int first = pageNumber * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, journal.countForAccount(accountNumber));
+        String[] page = new String[PAGE_SIZE];
+
+        JournalRecord record = new JournalRecord();
+        for (int i = first; i < last; i++) {
+            page[i - first] = journal.read(journal.positionForAccount(accountNumber, i), record).format();
+        }
+
+        synchronized (pages) {
+            pages.put(pageNumber, page);
+        }
+        Metrics.getInstance().record(Metrics.Operation.HISTORY_LOAD, start, true);
+        return page;
+    }
+
+    private void prefetch(int pageNumber) {
+        if (pageNumber * PAGE_SIZE >= size || cachedPage(pageNumber) != null) {
+            return;
+        }
+        PREFETCHER.execute(() -> {
+            if (cachedPage(pageNumber) == null) {
+                loadPage(pageNumber);
+            }
+        });
+    }
+}
@@ -0,0 +1,644 @@
+package com.bankingsystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single append-only journal for all account transactions.
+ * Records have a fixed binary layout (see JournalRecord) and are written into
+ * preallocated, memory-mapped segment files, so an append is a handful of
+ * stores into mapped memory instead of an open/append/close of a text file.
+ * Readers scan the mapped segments in place through a JournalRecord view.
+ *
+ * A record's position is its global index in the journal: segment number times
+ * {@link #RECORDS_PER_SEGMENT} plus its slot in that segment.
+ *
+ * Every append returns a future that completes once the record is as durable as the
+ * configured {@link Durability} requires. In GROUP_COMMIT mode a background thread
+ * flushes the records of many concurrent callers with a single force call, bounded by
+ * a maximum batch size and a maximum wait.
+ * Uses the Singleton pattern (like Database) for the application-wide instance.
+ */
+public class TransactionJournal implements Closeable {
+
+    /**
+     * How long an append waits before its future completes.
+     */
+    public enum Durability {
+        /** Complete immediately; the OS writes the pages back whenever it chooses. */
+        NONE,
+        /** Force every record to disk before its append returns. */
+        PER_RECORD,
+        /** Batch records from concurrent callers into one force call. */
+        GROUP_COMMIT
+    }
+
+    /**
+     * A balance change together with the appends that record it (see {@link #runOrdered}).
+     */
+    public interface OrderedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Callback used when scanning the journal.
+     */
+    public interface Visitor {
+        /**
+         * @param position The global position of the record.
+         * @param record A view of the record, only valid for the duration of the call.
+         * @return true to continue scanning, false to stop.
+         */
+        boolean visit(long position, JournalRecord record);
+    }
+
+    public static final int RECORDS_PER_SEGMENT = 1 << 16;
+    private static final int SEGMENT_SHIFT = 16;
+    private static final long SEGMENT_BYTES = (long) RECORDS_PER_SEGMENT * JournalRecord.RECORD_SIZE;
+
+    private static final String DEFAULT_DIRECTORY = "journal";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jnl";
+    private static final String INDEX_FILE = "accounts.idx";
+
+    private static final int DEFAULT_MAX_BATCH = 256;
+    private static final long DEFAULT_MAX_WAIT_MICROS = 2_000L;
+
+    private static TransactionJournal instance;
+
+    private final Path directory;
+
+    // Copy-on-write so readers can index segments without taking the append lock
+    // (a mapping stays valid after its file channel is closed, so no channels are kept open)
+    private volatile MappedByteBuffer[] segments;
+
+    // Next position to be written; positions below this are fully committed
+    private volatile long writePosition;
+
+    // Per-account record positions, maintained on every append
+    private final JournalIndex index;
+
+    // --- Durability state (guarded by this) ---
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private long durablePosition; // positions below this have been forced to disk
+    private List<PendingAppend> pending = new ArrayList<>();
+    private long oldestPendingNanos;
+    private boolean closed;
+    private final Thread groupCommitThread;
+
+    private TransactionJournal(Path directory, Durability durability, int maxBatchSize, long maxWaitMicros) throws IOException {
+        if (maxBatchSize <= 0 || maxWaitMicros < 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive and maxWaitMicros non-negative");
+        }
+        this.directory = directory;
+        this.durability = durability;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        Files.createDirectories(directory);
+        this.segments = new MappedByteBuffer[0];
+        openExistingSegments();
+        this.index = JournalIndex.load(directory.resolve(INDEX_FILE), this);
+        this.durablePosition = writePosition;
+
+        if (durability == Durability.GROUP_COMMIT) {
+            groupCommitThread = new Thread(this::runGroupCommit, "journal-group-commit");
+            groupCommitThread.setDaemon(true);
+            groupCommitThread.start();
+        } else {
+            groupCommitThread = null;
+        }
+    }
+
+    /**
+     * Opens (or creates) a journal in the given directory without any forced flushing.
+     * @param directory The directory holding the segment files.
+     * @return The opened journal.
+     * @throws IOException if the segment files cannot be created or mapped.
+     */
+    public static TransactionJournal open(Path directory) throws IOException {
+        return new TransactionJournal(directory, Durability.NONE, DEFAULT_MAX_BATCH, DEFAULT_MAX_WAIT_MICROS);
+    }
+
+    /**
+     * Opens (or creates) a journal in the given directory with the given durability.
+     * @param directory The directory holding the segment files.
+     * @param durability When appends are considered complete.
+     * @param maxBatchSize GROUP_COMMIT only: flush as soon as this many records are pending.
+     * @param maxWaitMicros GROUP_COMMIT only: flush at the latest this long after the oldest pending record.
+     * @return The opened journal.
+     * @throws IOException if the segment files cannot be created or mapped.
+     */
+    public static TransactionJournal open(Path directory, Durability durability, int maxBatchSize, long maxWaitMicros)
+            throws IOException {
+        return new TransactionJournal(directory, durability, maxBatchSize, maxWaitMicros);
+    }
+
+    /**
+     * Returns the application-wide journal, stored under ./journal with group commit enabled.
+     * @throws IOException if the journal cannot be opened.
+     */
+    public static synchronized TransactionJournal getInstance() throws IOException {
+        if (instance == null) {
+            instance = new TransactionJournal(Paths.get(DEFAULT_DIRECTORY), Durability.GROUP_COMMIT,
+                    DEFAULT_MAX_BATCH, DEFAULT_MAX_WAIT_MICROS);
+        }
+        return instance;
+    }
+
+    /**
+     * Closes the application-wide journal if it was ever opened (see {@link #close()}).
+     * @throws IOException if the final flush fails.
+     */
+    public static synchronized void closeInstance() throws IOException {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    // --- Writing ---
+
+    /**
+     * Runs {@code action} while holding the append lock. Anything that changes a balance and
+     * journals the result does both inside one call, so records appear in the journal in the
+     * order their balance changes were made; the last record of an account then carries its
+     * current balance, which is what DatabaseSnapshot.replay relies on after a restart.
+     * The action should only change balances and append; it must not wait for an append's
+     * future, which cannot complete while the lock is held. Join the futures afterwards.
+     * @param action The balance change and its appends.
+     * @return The action's result.
+     * @throws IOException if the action throws it.
+     */
+    public synchronized <T> T runOrdered(OrderedAction<T> action) throws IOException {
+        return action.run();
+    }
+
+    /**
+     * Appends a record for a transaction on {@code account}.
+     * @see #append(TransactionType, Account, long, long, Account, String, int)
+     */
+    public CompletableFuture<Long> append(TransactionType type, Account account, long amountCents, long balanceAfterCents,
+                                          Account counterparty, String reference) throws IOException {
+        return append(type, account, amountCents, balanceAfterCents, counterparty, reference, 0);
+    }
+
+    /**
+     * Appends a record for a transaction on {@code account}.
+     * @param type The kind of transaction.
+     * @param account The account the record belongs to.
+     * @param amountCents The transaction amount, in cents.
+     * @param balanceAfterCents The account balance after the transaction, in cents.
+     * @param counterparty The other account of a transfer, or null.
+     * @param reference Free-form reference such as a phone number, or null.
+     * @param period The interest period an INTEREST record posts, 0 for other records.
+     * @return A future completing with the record's global position once it is durable
+     *         according to this journal's Durability (completed exceptionally if the flush fails).
+     * @throws IOException if the journal is closed or a new segment file cannot be allocated.
+     */
+    public synchronized CompletableFuture<Long> append(TransactionType type, Account account, long amountCents, long balanceAfterCents,
+                                    Account counterparty, String reference, int period) throws IOException {
+        if (closed) {
+            throw new IOException("Transaction journal is closed");
+        }
+        long start = System.nanoTime();
+        BankingEvents.JournalAppend event = new BankingEvents.JournalAppend();
+        event.begin();
+        long position = writePosition;
+        int segmentIndex = (int) (position >>> SEGMENT_SHIFT);
+        if (segmentIndex >= segments.length) {
+            addSegment(segmentIndex);
+        }
+        MappedByteBuffer buffer = segments[segmentIndex];
+        int offset = slotOffset(position);
+
+        AccountType accountType = AccountType.of(account);
+        AccountType counterpartyType = counterparty == null ? null : AccountType.of(counterparty);
+
+        buffer.put(offset + JournalRecord.OFF_TYPE, (byte) type.ordinal());
+        buffer.put(offset + JournalRecord.OFF_ACCOUNT_TYPE, accountType == null ? 0 : (byte) accountType.getCode());
+        buffer.put(offset + JournalRecord.OFF_COUNTERPARTY_TYPE, counterpartyType == null ? 0 : (byte) counterpartyType.getCode());
+        buffer.putLong(offset + JournalRecord.OFF_TIMESTAMP, System.currentTimeMillis());
+        buffer.putLong(offset + JournalRecord.OFF_AMOUNT, amountCents);
+        buffer.putLong(offset + JournalRecord.OFF_BALANCE, balanceAfterCents);
+        JournalRecord.writeAscii(buffer, offset + JournalRecord.OFF_ACCOUNT, JournalRecord.ACCOUNT_LENGTH,
+                account.getAccountNumber());
+        JournalRecord.writeAscii(buffer, offset + JournalRecord.OFF_COUNTERPARTY, JournalRecord.ACCOUNT_LENGTH,
+                counterparty == null ? null : counterparty.getAccountNumber());
+        JournalRecord.writeAscii(buffer, offset + JournalRecord.OFF_REFERENCE, JournalRecord.REFERENCE_LENGTH, reference);
+        buffer.putInt(offset + JournalRecord.OFF_PERIOD, period);
+        buffer.putInt(offset + JournalRecord.OFF_CHECKSUM, JournalRecord.checksum(buffer, offset));
+
+        // Writing the marker last only orders the stores within this process; the OS may write a
+        // record's pages back in any order, so recovery also checks the checksum before trusting it
+        buffer.putInt(offset + JournalRecord.OFF_MARKER, JournalRecord.COMMIT_MARKER);
+
+        writePosition = position + 1; // volatile write publishes the record to readers
+        index.add(account.getAccountNumber(), position);
+
+        // The event covers the write itself; flushes are reported separately as JournalFlush
+        event.end();
+        if (event.shouldCommit()) {
+            event.transactionType = type.name();
+            event.accountNumber = account.getAccountNumber();
+            event.position = position;
+            event.durability = durability.name();
+            event.commit();
+        }
+
+        switch (durability) {
+            case PER_RECORD:
+                try {
+                    force(position, position + 1);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                durablePosition = position + 1;
+                Metrics.getInstance().record(Metrics.Operation.JOURNAL_APPEND, start, true);
+                return CompletableFuture.completedFuture(position);
+            case GROUP_COMMIT:
+                PendingAppend future = new PendingAppend(start);
+                if (pending.isEmpty()) {
+                    oldestPendingNanos = start;
+                }
+                pending.add(future);
+                if (pending.size() == 1 || pending.size() >= maxBatchSize) {
+                    notifyAll(); // wake the group-commit thread to start (or cut short) its wait
+                }
+                return future;
+            case NONE:
+            default:
+                Metrics.getInstance().record(Metrics.Operation.JOURNAL_APPEND, start, true);
+                return CompletableFuture.completedFuture(position);
+        }
+    }
+
+    // --- Durability ---
+
+    /**
+     * Forces every record written so far to disk, whatever this journal's Durability.
+     * DatabaseSnapshot calls this before installing a snapshot, so the records it may need to
+     * replay on top of that snapshot cannot be lost in a crash.
+     * @return The number of records that are now durable.
+     * @throws IOException if the flush fails.
+     */
+    public long sync() throws IOException {
+        long from;
+        long to;
+        synchronized (this) {
+            from = durablePosition;
+            to = writePosition;
+        }
+        if (from < to) {
+            try {
+                force(from, to);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            synchronized (this) {
+                durablePosition = Math.max(durablePosition, to);
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Body of the group-commit thread: waits until the batch is full or the oldest
+     * pending record has waited maxWait, then forces everything written so far with
+     * one call per touched segment and completes the batch's futures. Appends are
+     * not blocked while the force is in progress.
+     */
+    private void runGroupCommit() {
+        while (true) {
+            List<PendingAppend> batch;
+            long from;
+            long to;
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && !closed) {
+                        wait();
+                    }
+                    while (!pending.isEmpty() && pending.size() < maxBatchSize && !closed) {
+                        long remaining = maxWaitNanos - (System.nanoTime() - oldestPendingNanos);
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    closed = true;
+                }
+                if (pending.isEmpty() && closed) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                from = durablePosition;
+                to = writePosition;
+            }
+
+            Throwable failure = null;
+            try {
+                force(from, to);
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            }
+
+            synchronized (this) {
+                if (failure == null) {
+                    durablePosition = Math.max(durablePosition, to);
+                }
+            }
+            // Every GROUP_COMMIT append adds exactly one future, so the batch covers
+            // the contiguous positions ending just before 'to'
+            long firstPosition = to - batch.size();
+            Metrics metrics = Metrics.getInstance();
+            for (int i = 0; i < batch.size(); i++) {
+                PendingAppend append = batch.get(i);
+                // Latency of a GROUP_COMMIT append runs until its record is durable
+                metrics.record(Metrics.Operation.JOURNAL_APPEND, append.startNanos, failure == null);
+                if (failure == null) {
+                    append.complete(firstPosition + i);
+                } else {
+                    append.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the records in [from, to) to disk, one force call per touched segment.
+     */
+    private void force(long from, long to) {
+        BankingEvents.JournalFlush event = new BankingEvents.JournalFlush();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            MappedByteBuffer[] current = segments;
+            long position = from;
+            while (position < to) {
+                int segmentIndex = (int) (position >>> SEGMENT_SHIFT);
+                long segmentEnd = Math.min(to, ((long) segmentIndex + 1) << SEGMENT_SHIFT);
+                int offset = slotOffset(position);
+                int length = (int) (segmentEnd - position) * JournalRecord.RECORD_SIZE;
+                current[segmentIndex].force(offset, length);
+                position = segmentEnd;
+            }
+            succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.fromPosition = from;
+                event.toPosition = to;
+                event.records = to - from;
+                event.bytes = (to - from) * JournalRecord.RECORD_SIZE;
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Scans committed records starting at {@code fromPosition}, in append order.
+     * @param fromPosition The first position to visit.
+     * @param visitor Receives each record; return false to stop early.
+     * @return The position after the last record visited.
+     */
+    public long scan(long fromPosition, Visitor visitor) {
+        long end = writePosition;
+        MappedByteBuffer[] current = segments;
+        JournalRecord record = new JournalRecord();
+
+        long position = Math.max(0L, fromPosition);
+        while (position < end) {
+            MappedByteBuffer buffer = current[(int) (position >>> SEGMENT_SHIFT)];
+            if (!visitor.visit(position, record.wrap(buffer, slotOffset(position)))) {
+                return position + 1;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Points {@code into} at the committed record at {@code position}.
+     * @param position The global record position.
+     * @param into The view to re-point.
+     * @return {@code into}, or null if no committed record exists at that position.
+     */
+    public JournalRecord read(long position, JournalRecord into) {
+        if (position < 0 || position >= writePosition) {
+            return null;
+        }
+        return into.wrap(segments[(int) (position >>> SEGMENT_SHIFT)], slotOffset(position));
+    }
+
+    // --- Per-account reads (served from the account index) ---
+
+    /**
+     * @param accountNumber The account number.
+     * @return The number of records the journal holds for the account.
+     */
+    public int countForAccount(String accountNumber) {
+        return index.count(accountNumber);
+    }
+
+    /**
+     * @param accountNumber The account number.
+     * @param recordIndex The index of the record within the account's history (0 = oldest).
+     * @return The global journal position of that record.
+     */
+    public long positionForAccount(String accountNumber, int recordIndex) {
+        return index.position(accountNumber, recordIndex);
+    }
+
+    /**
+     * Visits only the given account's records, oldest first, starting at its
+     * {@code fromIndex}-th record. Cost is proportional to the account's own history,
+     * not to the size of the whole journal.
+     * @param accountNumber The account number.
+     * @param fromIndex The first record (within the account's history) to visit.
+     * @param visitor Receives each record; return false to stop early.
+     * @return The index (within the account's history) after the last record visited.
+     */
+    public int scanAccount(String accountNumber, int fromIndex, Visitor visitor) {
+        int end = index.count(accountNumber);
+        JournalRecord record = new JournalRecord();
+        for (int i = Math.max(0, fromIndex); i < end; i++) {
+            long position = index.position(accountNumber, i);
+            if (!visitor.visit(position, read(position, record))) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return The number of committed records (also the next position to be written).
+     */
+    public long size() {
+        return writePosition;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Stops accepting appends, completes any pending group commit and flushes all mapped
+     * segments to disk. The mappings themselves are released by the JVM.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        if (groupCommitThread != null) {
+            try {
+                groupCommitThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        synchronized (this) {
+            index.close();
+        }
+    }
+
+    // --- Segment management ---
+
+    private static int slotOffset(long position) {
+        return (int) (position & (RECORDS_PER_SEGMENT - 1)) * JournalRecord.RECORD_SIZE;
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Maps every existing segment and recovers the write position: the first slot, in any
+     * segment, without a commit marker or whose checksum does not match (a record torn across
+     * pages that were only partly written back before a crash). Records after that slot can only
+     * be left over from pages written back out of order (or from an earlier, longer journal), so
+     * their markers are cleared; otherwise the next append would fill the gap and a later
+     * recovery would bring the stale records back. Finding the end checksums every record once.
+     */
+    private void openExistingSegments() throws IOException {
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                existing.add(path);
+            }
+        }
+        existing.sort(null);
+
+        for (int i = 0; i < existing.size(); i++) {
+            if (!existing.get(i).equals(segmentPath(i))) {
+                throw new IOException("Journal segment missing or misnamed: expected " + segmentPath(i));
+            }
+            addSegment(i);
+        }
+
+        long end = (long) segments.length << SEGMENT_SHIFT;
+        long position = 0L;
+        while (position < end && isCommitted(position)) {
+            position++;
+        }
+        writePosition = position;
+        try {
+            clearMarkersFrom(position + 1, end);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean isCommitted(long position) {
+        return JournalRecord.isCommitted(segments[(int) (position >>> SEGMENT_SHIFT)], slotOffset(position));
+    }
+
+    /**
+     * Clears every commit marker in [from, end), whether or not its record is intact, and
+     * forces the segments that changed, so the cleared tail survives another crash.
+     */
+    private void clearMarkersFrom(long from, long end) {
+        int lastForced = -1;
+        for (long position = from; position < end; position++) {
+            if (segments[(int) (position >>> SEGMENT_SHIFT)].getInt(slotOffset(position) + JournalRecord.OFF_MARKER) != 0) {
+                int segmentIndex = (int) (position >>> SEGMENT_SHIFT);
+                segments[segmentIndex].putInt(slotOffset(position) + JournalRecord.OFF_MARKER, 0);
+                if (segmentIndex != lastForced) {
+                    if (lastForced >= 0) {
+                        segments[lastForced].force();
+                    }
+                    lastForced = segmentIndex;
+                }
+            }
+        }
+        if (lastForced >= 0) {
+            segments[lastForced].force();
+        }
+    }
+
+    /**
+     * Creates (if needed), preallocates and maps the segment with the given index.
+     */
+    private void addSegment(int index) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(index).toFile(), "rw")) {
+            if (file.length() < SEGMENT_BYTES) {
+                file.setLength(SEGMENT_BYTES);
+            }
+            FileChannel channel = file.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            MappedByteBuffer[] grown = Arrays.copyOf(segments, index + 1);
+            grown[index] = buffer;
+            segments = grown;
+        }
+    }
+
+    /**
+     * Future of a GROUP_COMMIT append, remembering when the append started so its
+     * latency can be measured when the batch commits.
+     */
+    private static final class PendingAppend extends CompletableFuture<Long> {
+        final long startNanos;
+
+        PendingAppend(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.bankingsystem;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front door for deposits, withdrawals and transfers.
+ * Each operation runs the balance update and its journal write on a background
+ * executor and returns a CompletableFuture with a {@link Receipt}, so callers (such
+ * as the JavaFX controllers) never block on the disk. It has no JavaFX dependency:
+ * UI code marshals the result back with Platform.runLater, headless code can simply join().
+ *
+ * Work runs on virtual threads when the JVM provides them, otherwise on a fixed pool
+ * of daemon threads. At most {@code maxInFlight} operations are accepted at once;
+ * beyond that the returned future fails immediately with a RejectedExecutionException
+ * so callers see back-pressure instead of an unbounded queue.
+ * Uses the Singleton pattern (like Database) for the application-wide instance.
+ */
+public class TransactionService {
+
+    /**
+     * Result of an operation.
+     */
+    public enum Status {
+        /** Applied and recorded in the journal. */
+        SUCCESS,
+        /** The amount was not positive. */
+        INVALID_AMOUNT,
+        /** The debit was refused by the account's withdraw rules. */
+        INSUFFICIENT_FUNDS,
+        /** Source and destination of a transfer are the same account. */
+        SAME_ACCOUNT,
+        /** No account has the destination number of a transfer. */
+        UNKNOWN_ACCOUNT,
+        /** Applied to the balances, but the journal record could not be written. */
+        NOT_RECORDED
+    }
+
+    /**
+     * What an operation did, with the balances after it.
+     */
+    public static final class Receipt {
+        private final Status status;
+        private final long amountCents;
+        private final long balanceAfterCents;
+        private final long counterpartyBalanceAfterCents;
+
+        Receipt(Status status, long amountCents, long balanceAfterCents, long counterpartyBalanceAfterCents) {
+            this.status = status;
+            this.amountCents = amountCents;
+            this.balanceAfterCents = balanceAfterCents;
+            this.counterpartyBalanceAfterCents = counterpartyBalanceAfterCents;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isApplied() {
+            return status == Status.SUCCESS || status == Status.NOT_RECORDED;
+        }
+
+        public long getAmountCents() {
+            return amountCents;
+        }
+
+        /**
+         * @return The balance of the account operated on (the source of a transfer) afterwards, in cents.
+         */
+        public long getBalanceAfterCents() {
+            return balanceAfterCents;
+        }
+
+        /**
+         * @return The destination balance after a transfer, in cents (0 for deposits and withdrawals).
+         */
+        public long getCounterpartyBalanceAfterCents() {
+            return counterpartyBalanceAfterCents;
+        }
+    }
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int FALLBACK_POOL_SIZE = 16;
+
+    private static TransactionService instance;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final TransferEngine transferEngine;
+    private final TransactionJournal journal; // null: the application-wide journal
+    private final CustomerDataAccess accounts; // null: Database.getInstance()
+
+    /**
+     * Creates a service that records to the application-wide journal.
+     * @param maxInFlight The maximum number of operations accepted but not yet completed.
+     * @param transferEngine The engine used for transfers.
+     */
+    public TransactionService(int maxInFlight, TransferEngine transferEngine) {
+        this(maxInFlight, transferEngine, null);
+    }
+
+    /**
+     * @param maxInFlight The maximum number of operations accepted but not yet completed.
+     * @param transferEngine The engine used for transfers.
+     * @param journal The journal operations are recorded in, or null for TransactionJournal.getInstance().
+     */
+    public TransactionService(int maxInFlight, TransferEngine transferEngine, TransactionJournal journal) {
+        this(maxInFlight, transferEngine, journal, null);
+    }
+
+    /**
+     * @param maxInFlight The maximum number of operations accepted but not yet completed.
+     * @param transferEngine The engine used for transfers.
+     * @param journal The journal operations are recorded in, or null for TransactionJournal.getInstance().
+     * @param accounts Resolves transfer destinations given by number, or null for Database.getInstance().
+     */
+    public TransactionService(int maxInFlight, TransferEngine transferEngine, TransactionJournal journal,
+            CustomerDataAccess accounts) {
+        this.executor = newExecutor();
+        this.permits = new Semaphore(maxInFlight);
+        this.transferEngine = transferEngine;
+        this.journal = journal;
+        this.accounts = accounts;
+    }
+
+    public static synchronized TransactionService getInstance() {
+        if (instance == null) {
+            instance = new TransactionService(DEFAULT_MAX_IN_FLIGHT, TransferEngine.getInstance());
+        }
+        return instance;
+    }
+
+    // --- Operations ---
+
+    /**
+     * Deposits into {@code account} and journals a DEPOSIT record.
+     * @param account The account to credit.
+     * @param cents The amount, in cents.
+     * @param reference The reference journaled with the record (e.g. a phone number), or null.
+     * @return A future with the receipt; fails with RejectedExecutionException if the service is saturated or shut down.
+     */
+    public CompletableFuture<Receipt> deposit(Account account, long cents, String reference) {
+        return submit(Metrics.Operation.DEPOSIT, () -> {
+            // Journal the balance this deposit produced, not a later read another operation may have changed
+            long[] balanceAfter = new long[1];
+            boolean recorded = applyAndRecord(TransactionType.DEPOSIT.getLabel(), journal -> {
+                balanceAfter[0] = account.creditCents(cents);
+                if (balanceAfter[0] == Account.REJECTED || journal == null) {
+                    return null;
+                }
+                return journal.append(TransactionType.DEPOSIT, account, cents, balanceAfter[0], null, reference);
+            });
+            if (balanceAfter[0] == Account.REJECTED) {
+                return new Receipt(Status.INVALID_AMOUNT, cents, account.getBalanceCents(), 0L);
+            }
+            return new Receipt(recorded ? Status.SUCCESS : Status.NOT_RECORDED, cents, balanceAfter[0], 0L);
+        });
+    }
+
+    /**
+     * Withdraws from {@code account} under its withdraw rules and journals a WITHDRAWAL record.
+     * @param account The account to debit.
+     * @param cents The amount, in cents.
+     * @param reference The reference journaled with the record (e.g. a phone number), or null.
+     * @return A future with the receipt; fails with RejectedExecutionException if the service is saturated or shut down.
+     */
+    public CompletableFuture<Receipt> withdraw(Account account, long cents, String reference) {
+        return submit(Metrics.Operation.WITHDRAW, () -> {
+            if (cents <= 0) {
+                return new Receipt(Status.INVALID_AMOUNT, cents, account.getBalanceCents(), 0L);
+            }
+            long[] balanceAfter = new long[1];
+            boolean recorded = applyAndRecord(TransactionType.WITHDRAWAL.getLabel(), journal -> {
+                balanceAfter[0] = account.debitCents(cents);
+                if (balanceAfter[0] == Account.REJECTED || journal == null) {
+                    return null;
+                }
+                return journal.append(TransactionType.WITHDRAWAL, account, cents, balanceAfter[0], null, reference);
+            });
+            if (balanceAfter[0] == Account.REJECTED) {
+                return new Receipt(Status.INSUFFICIENT_FUNDS, cents, account.getBalanceCents(), 0L);
+            }
+            return new Receipt(recorded ? Status.SUCCESS : Status.NOT_RECORDED, cents, balanceAfter[0], 0L);
+        });
+    }
+
+    /**
+     * Transfers between two accounts with the TransferEngine and journals a
+     * TRANSFER_OUT / TRANSFER_IN pair.
+     * @param source The account to debit.
+     * @param destination The account to credit.
+     * @param cents The amount, in cents.
+     * @return A future with the receipt; fails with RejectedExecutionException if the service is saturated or shut down.
+     */
+    public CompletableFuture<Receipt> transfer(Account source, Account destination, long cents) {
+        return submit(Metrics.Operation.TRANSFER, () -> {
+            // Balances produced by the debit and credit, captured while the transfer held its stripes
+            long[] balancesAfter = new long[2];
+            TransferEngine.Outcome[] outcome = new TransferEngine.Outcome[1];
+            boolean recorded = applyAndRecord("Transfer", journal -> {
+                outcome[0] = transferEngine.transferCents(source, destination, cents, balancesAfter);
+                if (outcome[0] != TransferEngine.Outcome.SUCCESS || journal == null) {
+                    return null;
+                }
+                // Both records normally land in the same group commit
+                CompletableFuture<Long> out = journal.append(TransactionType.TRANSFER_OUT, source,
+                        cents, balancesAfter[0], destination, null);
+                CompletableFuture<Long> in = journal.append(TransactionType.TRANSFER_IN, destination,
+                        cents, balancesAfter[1], source, null);
+                return CompletableFuture.allOf(out, in);
+            });
+            switch (outcome[0]) {
+                case INVALID_AMOUNT:
+                    return new Receipt(Status.INVALID_AMOUNT, cents, source.getBalanceCents(), destination.getBalanceCents());
+                case SAME_ACCOUNT:
+                    return new Receipt(Status.SAME_ACCOUNT, cents, source.getBalanceCents(), destination.getBalanceCents());
+                case INSUFFICIENT_FUNDS:
+                    return new Receipt(Status.INSUFFICIENT_FUNDS, cents, source.getBalanceCents(),
+                            destination.getBalanceCents());
+                default:
+                    return new Receipt(recorded ? Status.SUCCESS : Status.NOT_RECORDED, cents,
+                            balancesAfter[0], balancesAfter[1]);
+            }
+        });
+    }
+
+    /**
+     * Transfers to the account numbered {@code destinationNumber}, found through the account index
+     * (by encoded id, see CustomerDataAccess.findAccountById, so the lookup hashes no String).
+     * @param source The account to debit.
+     * @param destinationNumber The number of the account to credit.
+     * @param cents The amount, in cents.
+     * @return A future with the receipt (UNKNOWN_ACCOUNT if no account has that number); fails with
+     *         RejectedExecutionException if the service is saturated or shut down.
+     */
+    public CompletableFuture<Receipt> transfer(Account source, String destinationNumber, long cents) {
+        Account destination = findAccount(destinationNumber);
+        if (destination == null) {
+            return CompletableFuture.completedFuture(
+                    new Receipt(Status.UNKNOWN_ACCOUNT, cents, source.getBalanceCents(), 0L));
+        }
+        return transfer(source, destination, cents);
+    }
+
+    /**
+     * Stops accepting work and lets queued operations finish. Operations submitted afterwards
+     * fail with RejectedExecutionException.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the operations accepted before {@link #shutdown()} to finish, including their journal writes.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of {@code timeout}.
+     * @return true if every operation finished, false if the timeout elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Shuts down the application-wide service, if it was ever created, and waits for the
+     * operations already accepted to finish.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of {@code timeout}.
+     * @return true if every operation finished (or there was no service), false if the timeout elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static boolean shutdownInstance(long timeout, TimeUnit unit) throws InterruptedException {
+        TransactionService service;
+        synchronized (TransactionService.class) {
+            service = instance;
+            instance = null;
+        }
+        if (service == null) {
+            return true;
+        }
+        service.shutdown();
+        return service.awaitTermination(timeout, unit);
+    }
+
+    // --- Internals ---
+
+    /**
+     * Runs {@code task} on the executor if a permit is available; the permit is
+     * returned when the task completes, however it completes.
+     * The operation's latency (including any wait for an executor thread) is recorded in
+     * Metrics as a success if the receipt shows it applied, otherwise as a failure.
+     */
+    private CompletableFuture<Receipt> submit(Metrics.Operation operation, Supplier<Receipt> task) {
+        Metrics metrics = Metrics.getInstance();
+        if (!permits.tryAcquire()) {
+            metrics.recordRejected(operation);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Transaction service is busy; try again."));
+        }
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(task, executor).whenComplete((receipt, error) -> {
+                permits.release();
+                metrics.record(operation, start, error == null && receipt.isApplied());
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down: report it through the future, like saturation, rather than throwing at the caller
+            permits.release();
+            metrics.recordRejected(operation);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * A balance change together with the journal records that describe it.
+     */
+    private interface RecordedChange {
+        /**
+         * Applies the change and, if it took effect and {@code journal} is not null, appends its records.
+         * @param journal The journal to append to, or null if it could not be opened.
+         * @return A future completing when the records are durable, or null if nothing was appended.
+         * @throws IOException if a record cannot be appended.
+         */
+        CompletableFuture<?> apply(TransactionJournal journal) throws IOException;
+    }
+
+    /**
+     * Applies {@code change} and appends its records as one step of the journal's order (see
+     * TransactionJournal.runOrdered), so that recovery replays this operation's balances in the
+     * order they were produced, then waits for the records to be durable. The change is applied
+     * even if the journal cannot be opened or written.
+     * @param label Names the operation in the error message.
+     * @return true unless the journal failed.
+     */
+    private boolean applyAndRecord(String label, RecordedChange change) {
+        TransactionJournal journal;
+        try {
+            journal = journal();
+        } catch (IOException e) {
+            System.err.println(label + " applied but not journaled: " + e.getMessage());
+            try {
+                change.apply(null);
+            } catch (IOException impossible) {
+                // Nothing is appended without a journal
+            }
+            return false;
+        }
+        try {
+            CompletableFuture<?> written = journal.runOrdered(() -> change.apply(journal));
+            if (written != null) {
+                written.join(); // outside the journal's lock, which the group commit needs
+            }
+            return true;
+        } catch (IOException | CompletionException e) {
+            System.err.println(label + " applied but not journaled: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Account findAccount(String accountNumber) {
+        CustomerDataAccess index = accounts != null ? accounts : Database.getInstance();
+        long id = AccountId.encode(accountNumber);
+        return id != AccountId.NONE ? index.findAccountById(id) : index.findAccountByNumber(accountNumber).orElse(null);
+    }
+
+    private TransactionJournal journal() throws IOException {
+        return journal != null ? journal : TransactionJournal.getInstance();
+    }
+
+    /**
+     * Uses a virtual-thread-per-task executor when running on a JVM that has one
+     * (looked up reflectively so the code still builds for older releases), and
+     * otherwise a fixed pool of daemon platform threads.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (Throwable e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(FALLBACK_POOL_SIZE, r -> {
+                Thread thread = new Thread(r, "transaction-service-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bankingsystem;
+
+/**
+ * Kinds of records written to the TransactionJournal.
+ * The ordinal is stored in the binary record, so new constants must only be appended.
+ */
+public enum TransactionType {
+    DEPOSIT("DEPOSIT"),
+    WITHDRAWAL("WITHDRAWAL"),
+    TRANSFER_OUT("TRANSFER OUT"),
+    TRANSFER_IN("TRANSFER IN"),
+    INTEREST("INTEREST"),
+    FEE("FEE");
+
+    private static final TransactionType[] VALUES = values();
+
+    private final String label;
+
+    TransactionType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The label used when the record is displayed (e.g. "TRANSFER OUT").
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    static TransactionType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
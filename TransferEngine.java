@@ -0,0 +1,142 @@
+package com.bankingsystem;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Standalone, UI-independent engine for moving funds between two accounts.
+ * Uses a fixed pool of striped locks keyed by the accounts' encoded ids (see AccountId). Both stripes of a
+ * transfer are always acquired in ascending stripe order, so two transfers can never
+ * wait on each other in a cycle (no deadlocks), and the debit and credit of one
+ * transfer are never interleaved with another transfer touching the same accounts.
+ * Uses the Singleton pattern (like Database) for the application-wide instance.
+ */
+public class TransferEngine {
+
+    /**
+     * Result of a transfer attempt.
+     */
+    public enum Outcome {
+        SUCCESS,
+        INVALID_AMOUNT,
+        SAME_ACCOUNT,
+        INSUFFICIENT_FUNDS
+    }
+
+    private static final int DEFAULT_STRIPES = 256;
+
+    private static TransferEngine instance;
+
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates an engine with the given number of lock stripes.
+     * @param stripeCount The requested stripe count; rounded up to a power of two.
+     */
+    public TransferEngine(int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    public static synchronized TransferEngine getInstance() {
+        if (instance == null) {
+            instance = new TransferEngine(DEFAULT_STRIPES);
+        }
+        return instance;
+    }
+
+    /**
+     * Transfers a decimal amount (as entered in the UI) from source to destination.
+     * @see #transferCents(Account, Account, long)
+     */
+    public Outcome transfer(Account source, Account destination, double amount) {
+        return transferCents(source, destination, Money.fromAmount(amount));
+    }
+
+    /**
+     * Atomically debits {@code source} and credits {@code destination}.
+     * The debit follows the source account's own withdraw rules (sufficient funds,
+     * overdraft floor, investment penalty); the destination is only credited
+     * if the debit succeeded, and a positive credit cannot fail, so money is never lost.
+     * Safe to call from any number of threads concurrently.
+     * @param source The account to debit.
+     * @param destination The account to credit.
+     * @param cents The amount to move, in cents.
+     * @return The outcome of the transfer.
+     */
+    public Outcome transferCents(Account source, Account destination, long cents) {
+        return transferCents(source, destination, cents, null);
+    }
+
+    /**
+     * Transfers as {@link #transferCents(Account, Account, long)} and, on SUCCESS, stores the
+     * balances the debit and the credit produced while the stripes were held, so they can be
+     * journaled without a second read that another operation may already have changed.
+     * @param source The account to debit.
+     * @param destination The account to credit.
+     * @param cents The amount to move, in cents.
+     * @param balancesAfter Receives {source balance after, destination balance after} in cents, or null.
+     * @return The outcome of the transfer.
+     */
+    public Outcome transferCents(Account source, Account destination, long cents, long[] balancesAfter) {
+        if (cents <= 0) {
+            return Outcome.INVALID_AMOUNT;
+        }
+        if (source == destination || source.getAccountNumber().equals(destination.getAccountNumber())) {
+            return Outcome.SAME_ACCOUNT;
+        }
+
+        int first = stripeIndex(source);
+        int second = stripeIndex(destination);
+        if (first > second) {
+            // Always lock the lower stripe first to keep a global acquisition order
+            int tmp = first;
+            first = second;
+            second = tmp;
+        }
+
+        ReentrantLock firstLock = stripes[first];
+        ReentrantLock secondLock = stripes[second];
+        firstLock.lock();
+        try {
+            if (second != first) {
+                secondLock.lock();
+            }
+            try {
+                long sourceAfter = source.debitCents(cents);
+                if (sourceAfter == Account.REJECTED) {
+                    return Outcome.INSUFFICIENT_FUNDS;
+                }
+                long destinationAfter = destination.creditCents(cents);
+                if (balancesAfter != null) {
+                    balancesAfter[0] = sourceAfter;
+                    balancesAfter[1] = destinationAfter;
+                }
+                return Outcome.SUCCESS;
+            } finally {
+                if (second != first) {
+                    secondLock.unlock();
+                }
+            }
+        } finally {
+            firstLock.unlock();
+        }
+    }
+
+    /**
+     * Maps an account to its lock stripe, from its cached primitive id where possible.
+     */
+    private int stripeIndex(Account account) {
+        long id = account.getId();
+        if (id != AccountId.NONE) {
+            return (int) AccountId.hash(id) & stripeMask;
+        }
+        int h = account.getAccountNumber().hashCode();
+        h ^= (h >>> 16); // Spread high bits so short, similar account numbers do not cluster
+        return h & stripeMask;
+    }
+}
@@ -1,103 +1,138 @@
 package com.bankingsystem;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.control.TextArea;
-import javafx.stage.Stage;
-
-import java.io.BufferedReader; // Missing import added
-import java.io.FileReader;    // Missing import added
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 
-public class ViewTransactionsController implements Initializable {
+public class ViewTransactionsController implements Initializable, SceneNavigator.Refreshable, AccountContextAware {
+
+    @FXML
+    private Label historyHeaderLabel;
 
     @FXML
-    private TextArea transactionArea;
+    private ListView<String> transactionList;
 
     // --- Account Context State ---
     private Account sourceAccount;
     private String accountType; // e.g., "SAVINGS", "INVESTMENT"
-    private String filename;
+
+    // --- Follow mode: pushes newly journaled records into the open view ---
+    private TransactionHistoryList history;
+    private JournalTailer tailer;
 
     /**
      * REQUIRED: Method to receive the source account object and its type.
-     * Signature matches the reflection call (Account, String).
+     * Called through AccountContextAware by the account page controllers.
      */
+    @Override
     public void setSourceAccount(Account account, String type) {
         this.sourceAccount = account;
         this.accountType = type;
 
-        // Dynamically set the filename based on the account type
-        this.filename = getLogFileName(account);
-
         // Reload transactions after context is set (since context isn't available in initialize())
         // Ensure FXML elements are loaded before attempting to access them
-        if (transactionArea != null) {
+        if (transactionList != null) {
             loadTransactionsFromFile();
         }
     }
 
     /**
-     * Helper to determine the transaction log file based on account type.
+     * Initializes the controller. Note: We cannot load transactions here as the
+     * setSourceAccount method hasn't been called yet.
      */
-    private String getLogFileName(Account account) {
-        if (account instanceof Savings) {
-            return "savings.txt";
-        } else if (account instanceof InvestmentAccount) {
-            return "investment.txt";
-        } else if (account instanceof ChequeAccount) {
-            return "cheque.txt";
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        if (historyHeaderLabel != null) {
+            historyHeaderLabel.setText("Loading transactions...");
+        }
+        if (transactionList != null) {
+            // A fixed cell height lets the ListView virtualize without measuring every row
+            transactionList.setFixedCellSize(28.0);
+            transactionList.setPlaceholder(new Label("No transactions recorded yet."));
         }
-        return "transactions_log.txt"; // Default fallback
     }
 
     /**
-     * Initializes the controller. Note: We cannot load transactions here as the
-     * setSourceAccount method hasn't been called yet.
+     * Drops the previous visit's account and stops following it each time the (cached)
+     * page is shown; the new account is passed afterwards through setSourceAccount.
      */
     @Override
-    public void initialize(URL url, ResourceBundle rb) {
-        if (transactionArea != null) {
-            transactionArea.setText("Loading transactions...");
-        }
+    public void refresh() {
+        stopFollowing();
+        sourceAccount = null;
+        accountType = null;
+        history = null;
+        transactionList.setItems(null);
+        historyHeaderLabel.setText("Loading transactions...");
     }
 
     /**
-     * Reads all lines from the dynamically determined file and displays them.
+     * Binds the list to a lazily paged view of this account's journal records.
+     * Nothing is read up front except the record count; rows are loaded as they scroll into view.
      */
     private void loadTransactionsFromFile() {
-        if (this.filename == null || this.sourceAccount == null) {
-            transactionArea.setText("ERROR: No account context provided to load transactions.");
+        if (this.sourceAccount == null) {
+            historyHeaderLabel.setText("ERROR: No account context provided to load transactions.");
             return;
         }
 
-        StringBuilder content = new StringBuilder();
+        String accountNumber = sourceAccount.getAccountNumber();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(this.filename))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
+        try {
+            TransactionJournal journal = TransactionJournal.getInstance();
+            history = new TransactionHistoryList(journal, accountNumber);
+            transactionList.setItems(history);
+            updateHeader();
 
-            if (content.length() == 0) {
-                transactionArea.setText(String.format("--- Transactions for %s Account (%s) ---\nNo transactions recorded yet in %s.",
-                        accountType, sourceAccount.getAccountNumber(), this.filename));
-            } else {
-                transactionArea.setText(String.format("--- Transactions for %s Account (%s) ---\n%s",
-                        accountType, sourceAccount.getAccountNumber(), content.toString()));
-            }
+            // Follow the journal so new transactions appear without re-reading the history
+            stopFollowing();
+            tailer = new JournalTailer(journal, accountNumber,
+                    count -> Platform.runLater(() -> onNewRecords(count)));
+            tailer.start();
 
         } catch (IOException e) {
-            System.err.println("Error reading file: " + this.filename + ". Details: " + e.getMessage());
-            transactionArea.setText("ERROR: Could not read transaction file (" + this.filename + "). " +
-                    "Please ensure the file exists and is accessible.");
+            System.err.println("Error opening transaction journal. Details: " + e.getMessage());
+            historyHeaderLabel.setText("ERROR: Could not read the transaction journal. " +
+                    "Please ensure the journal directory exists and is accessible.");
+        }
+    }
+
+    /**
+     * Appends newly journaled rows to the list and keeps the newest one in view.
+     * Runs on the FX thread.
+     */
+    private void onNewRecords(int accountRecordCount) {
+        if (history == null) {
+            return;
+        }
+        history.growTo(accountRecordCount);
+        updateHeader();
+        transactionList.scrollTo(history.size() - 1);
+    }
+
+    private void updateHeader() {
+        historyHeaderLabel.setText(String.format("--- Transactions for %s Account (%s) --- %,d record(s)",
+                accountType, sourceAccount.getAccountNumber(), history.size()));
+    }
+
+    /**
+     * Stops the journal tailer, if one is running.
+     */
+    private void stopFollowing() {
+        if (tailer != null) {
+            try {
+                tailer.close();
+            } catch (IOException e) {
+                System.err.println("Error stopping transaction follow mode. Details: " + e.getMessage());
+            }
+            tailer = null;
         }
     }
 
@@ -106,6 +141,8 @@ public class ViewTransactionsController implements Initializable {
      */
     @FXML
     private void handleBackToMenu(ActionEvent event) {
+        stopFollowing();
+
         // Navigate back to the specific account page using the stored account type
         String fxmlPath = "";
         String title = "";
@@ -126,14 +163,8 @@ public class ViewTransactionsController implements Initializable {
         }
 
         try {
-            // Load the determined FXML
-            Parent root = FXMLLoader.load(getClass().getResource(fxmlPath));
-            Scene scene = new Scene(root);
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
+            // Show the determined (cached) page
+            SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
 
         } catch (IOException e) {
             e.printStackTrace();
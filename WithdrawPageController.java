@@ -1,22 +1,17 @@
 package com.bankingsystem;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
-public class WithdrawPageController {
+public class WithdrawPageController implements SceneNavigator.Refreshable, AccountContextAware {
 
     // --- FXML Element Connections ---
     @FXML
@@ -31,12 +26,28 @@ public class WithdrawPageController {
     @FXML
     private Label messageLabel;
 
+    @FXML
+    private Button doneButton; // Disabled while a submitted operation is in flight
+
     // --- Account State ---
     // FIX: Changed to use the base class 'Account' so it can accept Savings, Investment, or Cheque accounts.
     private Account sourceAccount;
     private String sourceAccountType;
 
 
+    /**
+     * Clears the previous visit's input and status each time the (cached) page is shown.
+     */
+    @Override
+    public void refresh() {
+        amountField.clear();
+        numberField.clear();
+        withdrawField.clear();
+        messageLabel.setText("");
+        doneButton.setDisable(false);
+    }
+
+
     /**
      * REQUIRED: This method is called by the account page controllers (Savings, Investment, etc.)
      * to pass the specific account data to this page.
@@ -44,6 +55,7 @@ public class WithdrawPageController {
      * @param accountType The type of the account (e.g., "SAVINGS", "INVESTMENT", "CHEQUE").
      */
     // FIX: Updated method signature to accept the generic 'Account' object.
+    @Override
     public void setSourceAccount(Account account, String accountType) {
         this.sourceAccount = account;
         this.sourceAccountType = accountType;
@@ -60,7 +72,7 @@ public class WithdrawPageController {
      * Handles the withdrawal action triggered by the "Done" button.
      * 1. Validates input.
      * 2. Attempts to perform the withdrawal on the source Account object.
-     * 3. Logs the transaction details to the appropriate file upon success.
+     * 3. Logs the transaction details to the transaction journal upon success.
      */
     @FXML
     private void handleWithdraw(ActionEvent event) {
@@ -90,78 +102,64 @@ public class WithdrawPageController {
                 return;
             }
 
-            // 3. Perform the withdrawal on the actual Account object
+            // 3. Perform and record the withdrawal off the FX thread
             // This relies on the polymorphic 'withdraw' method being correctly implemented in all subclasses (Savings, Cheque, Investment)
-            boolean success = sourceAccount.withdraw(amount);
-
-            if (!success) {
-                // Withdrawal failed (likely insufficient funds)
-                messageLabel.setText(
-                        String.format("Withdrawal failed. Insufficient funds in account %s. Current Balance: $%,.2f",
-                                sourceAccount.getAccountNumber(),
-                                sourceAccount.getBalance())
-                );
-                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
-                return;
-            }
-
-            // --- 4. Logging the Successful Transaction ---
-            // Determine filename based on account type (assuming savings.txt is for all savings, and others use other files)
-            // For now, let's simplify and log to a generic file or rely on the transaction history in the Account class (if implemented).
-            // Based on your original code, we will continue logging to "savings.txt" if the source account is Savings, otherwise, you may need a system to choose the file name dynamically.
-            String filename = "transactions_log.txt"; // Changed to a generic log file for simplicity across accounts
-            if (sourceAccount instanceof Savings) {
-                filename = "savings.txt";
-            } else if (sourceAccount instanceof InvestmentAccount) {
-                filename = "investment.txt";
-            } else if (sourceAccount instanceof ChequeAccount) {
-                filename = "cheque.txt";
-            }
+            String phone = numberField.getText().trim().isEmpty() ? "N/A" : numberField.getText().trim();
+            messageLabel.setText("Processing withdrawal...");
+            messageLabel.setTextFill(javafx.scene.paint.Color.GRAY);
 
+            doneButton.setDisable(true); // one operation per click until this one completes
+            TransactionService.getInstance().withdraw(sourceAccount, Money.fromAmount(amount), phone)
+                    .whenComplete((receipt, error) -> Platform.runLater(() -> showWithdrawResult(amount, receipt, error)));
 
-            // Get current timestamp
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
-            LocalDateTime now = LocalDateTime.now();
-            String timestamp = dtf.format(now);
-
-            // Format the transaction record, using the account number from the stored object
-            String transactionRecord = String.format(
-                    "[%s] WITHDRAWAL | Account Type: %s | Account: %s | Amount: $%.2f | New Balance: $%,.2f | Phone: %s\n",
-                    timestamp,
-                    sourceAccountType,
-                    sourceAccount.getAccountNumber(),
-                    amount,
-                    sourceAccount.getBalance(), // Use the updated balance for logging
-                    numberField.getText().trim().isEmpty() ? "N/A" : numberField.getText()
-            );
+        } catch (NumberFormatException e) {
+            // Handle invalid input format
+            messageLabel.setText("Error: Invalid amount entered. Please enter a valid number (e.g., 100.00).");
+            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+        }
+    }
 
-            // Using try-with-resources with BufferedWriter for efficient appending
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(filename, true))) {
-                bw.write(transactionRecord);
+    /**
+     * Shows the outcome of a withdrawal. Runs on the FX thread.
+     */
+    private void showWithdrawResult(double amount, TransactionService.Receipt receipt, Throwable error) {
+        doneButton.setDisable(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            messageLabel.setText(cause instanceof RejectedExecutionException
+                    ? "The system is busy. Please try again in a moment."
+                    : "System Error: Withdrawal could not be processed.");
+            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+            return;
+        }
 
+        switch (receipt.getStatus()) {
+            case SUCCESS:
                 // 5. Success Feedback
-                messageLabel.setText(String.format("Successfully withdrew $%.2f from %s. New Balance: $%,.2f. Record saved to %s.",
+                messageLabel.setText(String.format("Successfully withdrew $%.2f from %s. New Balance: $%,.2f. Record saved to the transaction journal.",
                         amount,
                         sourceAccount.getAccountNumber(),
-                        sourceAccount.getBalance(),
-                        filename));
+                        Money.toAmount(receipt.getBalanceAfterCents())));
                 messageLabel.setTextFill(javafx.scene.paint.Color.web("#38a169"));
 
                 // Clear fields after successful transaction
                 amountField.clear();
                 numberField.clear();
-
-            } catch (IOException e) {
-                // Handle file writing errors
-                e.printStackTrace();
+                break;
+            case NOT_RECORDED:
+                // Handle journal writing errors
                 messageLabel.setText("System Error: Withdrawal succeeded, but failed to save transaction record. Check file permissions.");
                 messageLabel.setTextFill(javafx.scene.paint.Color.ORANGE); // Use orange for partial success/logging error
-            }
-
-        } catch (NumberFormatException e) {
-            // Handle invalid input format
-            messageLabel.setText("Error: Invalid amount entered. Please enter a valid number (e.g., 100.00).");
-            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                break;
+            default:
+                // Withdrawal failed (likely insufficient funds)
+                messageLabel.setText(
+                        String.format("Withdrawal failed. Insufficient funds in account %s. Current Balance: $%,.2f",
+                                sourceAccount.getAccountNumber(),
+                                Money.toAmount(receipt.getBalanceAfterCents()))
+                );
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                break;
         }
     }
 
@@ -172,16 +170,8 @@ public class WithdrawPageController {
     @FXML
     private void handleBack(ActionEvent event) {
         try {
-            // Load the Accounts Page (where the user chooses the account)
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/AccountsPage.fxml"));
-            Parent root = loader.load();
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - My Accounts");
-            window.show();
+            // Show the Accounts Page (where the user chooses the account)
+            SceneNavigator.getInstance().show(event, "/fxml/AccountsPage.fxml", "Bank App - My Accounts");
 
         } catch (IOException e) {
             e.printStackTrace();
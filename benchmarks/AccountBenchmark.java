@@ -0,0 +1,97 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance updates: Account.deposit and withdraw on each account type.
+ * The plain variants run one thread against its own account; the Contended variants
+ * run {@link #CONTENDED_THREADS} threads against one shared account, which exercises
+ * the CAS retry loop. Both include the console logging the account classes do today.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+
+    static final int CONTENDED_THREADS = 4;
+
+    private static final double AMOUNT = 1.00;
+
+    /**
+     * One account per benchmark thread, recreated each iteration.
+     */
+    @State(Scope.Thread)
+    public static class OwnAccount {
+        @Param({"SAVINGS", "CHEQUE", "INVESTMENT"})
+        public AccountType type;
+
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            account = BenchmarkAccounts.create(type, "B" + Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * One account shared by all benchmark threads, recreated each iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedAccount {
+        @Param({"SAVINGS", "CHEQUE", "INVESTMENT"})
+        public AccountType type;
+
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            account = BenchmarkAccounts.create(type, "B1");
+        }
+    }
+
+    // --- Deposit ---
+
+    @Benchmark
+    @Threads(1)
+    public void deposit(OwnAccount state) {
+        state.account.deposit(AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public void depositContended(SharedAccount state) {
+        state.account.deposit(AMOUNT);
+    }
+
+    // --- Withdraw ---
+
+    @Benchmark
+    @Threads(1)
+    public boolean withdraw(OwnAccount state) {
+        return state.account.withdraw(AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public boolean withdrawContended(SharedAccount state) {
+        return state.account.withdraw(AMOUNT);
+    }
+}
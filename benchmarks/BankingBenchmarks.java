@@ -0,0 +1,42 @@
+package com.bankingsystem.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the banking benchmarks with JMH's GC profiler attached, so every result also
+ * reports the bytes allocated per operation (gc.alloc.rate.norm) next to its score.
+ *
+ * The repository has no build file, so these sources are compiled separately from the
+ * application: put the application classes, jmh-core and jmh-generator-annprocess
+ * (which must run as an annotation processor) on the classpath, then run
+ * {@code java com.bankingsystem.benchmarks.BankingBenchmarks [JMH options]}.
+ * Any standard JMH command-line option may be given, e.g. a benchmark name regex
+ * such as {@code AccountBenchmark.withdraw}, {@code -t 8} to change the thread count
+ * of the Contended variants, or {@code -p type=CHEQUE}. Without options every
+ * benchmark in this package runs.
+ *
+ * Run from a working directory without a bank.snapshot: LookupBenchmark expects
+ * Database to fall back to its mock customers.
+ */
+public final class BankingBenchmarks {
+
+    private BankingBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BankingBenchmarks.class.getPackage().getName() + "\\..*Benchmark\\..*");
+        }
+        Options options = builder.addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
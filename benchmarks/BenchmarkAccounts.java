@@ -0,0 +1,39 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountType;
+import com.bankingsystem.ChequeAccount;
+import com.bankingsystem.InvestmentAccount;
+import com.bankingsystem.Savings;
+
+/**
+ * Account fixtures shared by the benchmarks.
+ */
+final class BenchmarkAccounts {
+
+    static final String BRANCH = "Benchmark Branch";
+
+    // Large enough that no measurement iteration can run an account dry
+    static final double OPENING_BALANCE = 1_000_000_000.00;
+
+    private BenchmarkAccounts() {
+    }
+
+    /**
+     * @param type The kind of account to create.
+     * @param accountNumber Its account number.
+     * @return A new account holding {@link #OPENING_BALANCE}.
+     */
+    static Account create(AccountType type, String accountNumber) {
+        switch (type) {
+            case SAVINGS:
+                return new Savings(accountNumber, OPENING_BALANCE, 0.02, BRANCH);
+            case CHEQUE:
+                return new ChequeAccount(accountNumber, OPENING_BALANCE, 500.00, BRANCH);
+            case INVESTMENT:
+                return new InvestmentAccount(accountNumber, OPENING_BALANCE, 0.04, BRANCH);
+            default:
+                throw new IllegalArgumentException("Unknown account type: " + type);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountType;
+import com.bankingsystem.JournalRecord;
+import com.bankingsystem.TransactionJournal;
+import com.bankingsystem.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of transaction history rows: reading a journal record and turning it into
+ * the line the View Transactions page displays (JournalRecord.format, as called by
+ * TransactionHistoryList). The journal holds a mix of every record type and the
+ * benchmark cycles through them. The Contended variant formats from
+ * {@link AccountBenchmark#CONTENDED_THREADS} threads, each with its own record view.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryFormatBenchmark {
+
+    private static final int RECORD_COUNT = 1024; // a power of two, for the cursor mask
+
+    @State(Scope.Benchmark)
+    public static class History {
+        Path directory;
+        TransactionJournal journal;
+        long[] positions = new long[RECORD_COUNT];
+
+        @Setup
+        public void fill() throws IOException {
+            directory = BenchmarkFiles.createDirectory("history-bench");
+            journal = TransactionJournal.open(directory);
+            Account account = BenchmarkAccounts.create(AccountType.SAVINGS, "S9001");
+            Account counterparty = BenchmarkAccounts.create(AccountType.CHEQUE, "C9001");
+            TransactionType[] types = TransactionType.values();
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                TransactionType type = types[i % types.length];
+                boolean transfer = type == TransactionType.TRANSFER_OUT || type == TransactionType.TRANSFER_IN;
+                positions[i] = journal.append(type, account, 100L + i, 1_000_000L + i,
+                        transfer ? counterparty : null, transfer ? null : "555-000-0000").join();
+            }
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            journal.close();
+            BenchmarkFiles.delete(directory);
+        }
+    }
+
+    /**
+     * Per-thread record view and position in the cycle.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        final JournalRecord record = new JournalRecord();
+        int next;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String format(History history, Cursor cursor) {
+        return formatNext(history, cursor);
+    }
+
+    @Benchmark
+    @Threads(AccountBenchmark.CONTENDED_THREADS)
+    public String formatContended(History history, Cursor cursor) {
+        return formatNext(history, cursor);
+    }
+
+    private static String formatNext(History history, Cursor cursor) {
+        long position = history.positions[cursor.next++ & (RECORD_COUNT - 1)];
+        return history.journal.read(position, cursor.record).format();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountType;
+import com.bankingsystem.InterestBatchEngine;
+import com.bankingsystem.InterestScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month-end interest: one InterestBatchEngine.postMonthlyInterest run over a whole book of
+ * Savings and Investment accounts, without journaling (JournalBenchmark covers the appends).
+ * Each iteration builds a fresh book that is up to date with the due period and times a
+ * single run posting the month after it, so every account is posted exactly once.
+ *
+ * {@code parallelism} 1 runs the chunks on one thread; 0 uses the common pool, which is what
+ * the month-end target (seconds for millions of accounts) assumes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class InterestBatchBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int accounts;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private InterestBatchEngine engine;
+    private List<Account> book;
+    private int period;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+        engine = new InterestBatchEngine(pool, null);
+    }
+
+    @Setup(Level.Iteration)
+    public void createBook() throws IOException {
+        book = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            AccountType type = (i & 1) == 0 ? AccountType.SAVINGS : AccountType.INVESTMENT;
+            book.add(BenchmarkAccounts.create(type, type.getCode() + Integer.toString(1_000_000 + i)));
+        }
+        int due = InterestScheduler.duePeriod();
+        engine.postMonthlyInterest(book, due); // nothing is owed yet; brings every account up to date
+        period = due + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void shutDownPool() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public InterestBatchEngine.Result postMonthlyInterest() throws IOException {
+        return engine.postMonthlyInterest(book, period);
+    }
+}
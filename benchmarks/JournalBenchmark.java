@@ -0,0 +1,90 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountType;
+import com.bankingsystem.TransactionJournal;
+import com.bankingsystem.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction log appends: one TransactionJournal.append per operation, the write every
+ * deposit, withdrawal and transfer makes. Each iteration is a fixed batch of appends to a
+ * fresh journal in a temporary directory, so the files stay small. The Contended variant
+ * appends from {@link AccountBenchmark#CONTENDED_THREADS} threads to the same journal.
+ *
+ * Scores are the time for one batch of {@link #BATCH_SIZE} appends. Durability NONE
+ * measures the append itself. GROUP_COMMIT measures the latency the UI sees, because
+ * each append waits for its flush.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = JournalBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = JournalBenchmark.BATCH_SIZE)
+@Fork(1)
+public class JournalBenchmark {
+
+    static final int BATCH_SIZE = 2_000;
+
+    private static final long AMOUNT_CENTS = 100L;
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+        @Param({"NONE", "GROUP_COMMIT"})
+        public TransactionJournal.Durability durability;
+
+        Path directory;
+        TransactionJournal journal;
+        Account account;
+        Account counterparty;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            directory = BenchmarkFiles.createDirectory("journal-bench");
+            journal = TransactionJournal.open(directory, durability, 256, 200L);
+            account = BenchmarkAccounts.create(AccountType.SAVINGS, "S9001");
+            counterparty = BenchmarkAccounts.create(AccountType.CHEQUE, "C9001");
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            journal.close();
+            BenchmarkFiles.delete(directory);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long append(Journal state) throws IOException {
+        return appendTransfer(state);
+    }
+
+    @Benchmark
+    @Threads(AccountBenchmark.CONTENDED_THREADS)
+    public Long appendContended(Journal state) throws IOException {
+        return appendTransfer(state);
+    }
+
+    private static Long appendTransfer(Journal state) throws IOException {
+        CompletableFuture<Long> position = state.journal.append(TransactionType.TRANSFER_OUT, state.account,
+                AMOUNT_CENTS, 0L, state.counterparty, "555-000-0000");
+        return position.join();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.Account;
+import com.bankingsystem.AccountId;
+import com.bankingsystem.AccountType;
+import com.bankingsystem.Customer;
+import com.bankingsystem.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths used on every page: the Customer.getXAccount lookups,
+ * Database.findCustomerByCode (a hit and a miss) and the primitive-keyed
+ * Database.findAccountById, which should show no allocation under the GC profiler. The Contended variants run the
+ * same reads from {@link AccountBenchmark#CONTENDED_THREADS} threads on shared data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    // A customer from the mock data Database falls back to when there is no snapshot
+    private static final String KNOWN_CODE = "JSMITH";
+    private static final String UNKNOWN_CODE = "NOBODY";
+    private static final String KNOWN_ACCOUNT = "S1001";
+
+    private Customer customer;
+    private Database database;
+    private long knownAccountId;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("Bench", "Mark", "01/01/1990", "555-000-0000", "bench@example.com", "BENCH", "bench");
+        customer.addAccount(BenchmarkAccounts.create(AccountType.SAVINGS, "S9001"));
+        customer.addAccount(BenchmarkAccounts.create(AccountType.CHEQUE, "C9001"));
+        customer.addAccount(BenchmarkAccounts.create(AccountType.INVESTMENT, "I9001"));
+
+        database = Database.getInstance();
+        if (!database.findCustomerByCode(KNOWN_CODE).isPresent()) {
+            throw new IllegalStateException("Benchmark expects customer " + KNOWN_CODE
+                    + "; run without a bank.snapshot in the working directory.");
+        }
+        knownAccountId = AccountId.encode(KNOWN_ACCOUNT);
+    }
+
+    // --- Customer account lookups ---
+
+    @Benchmark
+    @Threads(1)
+    public Optional<?> getSavingsAccount() {
+        return customer.getSavingsAccount();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<?> getChequeAccount() {
+        return customer.getChequeAccount();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<?> getInvestmentAccount() {
+        return customer.getInvestmentAccount();
+    }
+
+    @Benchmark
+    @Threads(AccountBenchmark.CONTENDED_THREADS)
+    public Optional<?> getSavingsAccountContended() {
+        return customer.getSavingsAccount();
+    }
+
+    // --- Database ---
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Customer> findCustomerByCode() {
+        return database.findCustomerByCode(KNOWN_CODE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Customer> findCustomerByCodeMiss() {
+        return database.findCustomerByCode(UNKNOWN_CODE);
+    }
+
+    @Benchmark
+    @Threads(AccountBenchmark.CONTENDED_THREADS)
+    public Optional<Customer> findCustomerByCodeContended() {
+        return database.findCustomerByCode(KNOWN_CODE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account findAccountById() {
+        return database.findAccountById(knownAccountId);
+    }
+
+    @Benchmark
+    @Threads(AccountBenchmark.CONTENDED_THREADS)
+    public Account findAccountByIdContended() {
+        return database.findAccountById(knownAccountId);
+    }
+}
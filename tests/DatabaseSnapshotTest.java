@@ -0,0 +1,193 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of DatabaseSnapshot, and recovery from the journal position it is cut at
+ * while transfers run.
+ */
+class DatabaseSnapshotTest {
+
+    private Path file;
+    private Path journalDirectory;
+
+    @BeforeEach
+    void createSnapshotFile() throws IOException {
+        file = Files.createTempFile("snapshot-test", ".bin");
+        journalDirectory = Files.createTempDirectory("snapshot-journal-test");
+    }
+
+    @AfterEach
+    void deleteSnapshotFile() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".tmp"));
+        try (Stream<Path> paths = Files.walk(journalDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void customersAndAccountsRoundTripExactly() throws IOException {
+        Customer customer = new Customer("Ada", "Lovelace", "1815-12-10", "0123456789", "ada@example.com",
+                "CUST01", "secret");
+        // More than 255 accounts (the count used to be a byte) and balances beyond a double's 53 bits
+        for (int i = 0; i < 100; i++) {
+            Savings savings = new Savings("S" + (100_000 + i), "Branch " + i, 9_007_199_254_740_993L + i, 20_000L + i);
+            savings.restoreLastInterestPeriod(InterestScheduler.duePeriod() - i);
+            customer.addAccount(savings);
+            ChequeAccount cheque = new ChequeAccount("C" + (100_000 + i), "Branch " + i, -12_345L - i, 50_000L);
+            cheque.restoreLastFeeDay(DailyAccrual.today() - i);
+            customer.addAccount(cheque);
+            InvestmentAccount investment = new InvestmentAccount("I" + (100_000 + i), "Branch " + i, 1L + i, 85_000L);
+            investment.enableDailyAccrual(DailyAccrual.today());
+            customer.addAccount(investment);
+        }
+
+        DatabaseSnapshot.write(file, List.of(customer));
+        List<Customer> loaded = DatabaseSnapshot.load(file);
+
+        assertEquals(1, loaded.size());
+        Customer back = loaded.get(0);
+        assertEquals("Ada", back.getFirstName());
+        assertEquals("Lovelace", back.getLastName());
+        assertEquals("1815-12-10", back.getDateOfBirth());
+        assertEquals("0123456789", back.getPhoneNumber());
+        assertEquals("ada@example.com", back.getEmail());
+        assertEquals("CUST01", back.getCustomerCode());
+        assertEquals("secret", back.getPassword());
+
+        List<Account> expected = customer.getAccounts();
+        List<Account> actual = back.getAccounts();
+        assertEquals(300, actual.size());
+        for (int a = 0; a < expected.size(); a++) {
+            Account before = expected.get(a);
+            Account after = actual.get(a);
+            String number = before.getAccountNumber();
+            assertEquals(before.getClass(), after.getClass(), number);
+            assertEquals(number, after.getAccountNumber());
+            assertEquals(before.getBranch(), after.getBranch(), number);
+            assertEquals(before.getBalanceCents(), after.getBalanceCents(), number);
+            assertEquals(before.getAnnualRatePpm(), after.getAnnualRatePpm(), number);
+            assertEquals(before.getLastAccrualDay(), after.getLastAccrualDay(), number);
+            assertEquals(before.getLastInterestPeriod(), after.getLastInterestPeriod(), number);
+            assertEquals(before.getLastFeeDay(), after.getLastFeeDay(), number);
+            if (before instanceof ChequeAccount) {
+                assertEquals(((ChequeAccount) before).getOverdraftLimitCents(),
+                        ((ChequeAccount) after).getOverdraftLimitCents(), number);
+            }
+        }
+        assertEquals(100, back.getAccountCount(AccountType.SAVINGS));
+    }
+
+    @Test
+    void snapshotPlusJournalAddsUpWhileTransfersRun() throws Exception {
+        int accountCount = 200;
+        long openingCents = 100_000L;
+        List<Customer> customers = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            Customer customer = new Customer("First", "Last", "2000-01-01", "0", "c" + i + "@example.com",
+                    "C" + i, "pw");
+            Account account = new ChequeAccount("C" + (100_000 + i), "Branch", openingCents, 100_000_000L);
+            customer.addAccount(account);
+            customers.add(customer);
+            accounts.add(account);
+        }
+
+        try (TransactionJournal journal = TransactionJournal.open(journalDirectory)) {
+            TransactionService service = new TransactionService(64, new TransferEngine(64), journal);
+            AtomicBoolean stop = new AtomicBoolean();
+            ExecutorService transfers = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                transfers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!stop.get()) {
+                        service.transfer(accounts.get(random.nextInt(accountCount)),
+                                accounts.get(random.nextInt(accountCount)), 1 + random.nextInt(500)).join();
+                    }
+                });
+            }
+            try {
+                for (int round = 0; round < 50; round++) {
+                    DatabaseSnapshot.write(file, customers, journal);
+                    Map<String, Account> loaded = new HashMap<>();
+                    for (Customer customer : DatabaseSnapshot.load(file)) {
+                        Account account = customer.getAccounts().get(0);
+                        loaded.put(account.getAccountNumber(), account);
+                    }
+                    // What a restart sees: the snapshot plus every record journaled after its cut
+                    DatabaseSnapshot.replay(journal, DatabaseSnapshot.journalPosition(file), loaded::get);
+                    long total = 0L;
+                    for (Account account : loaded.values()) {
+                        total += account.getBalanceCents();
+                    }
+                    // Money only moves between accounts, so a consistent recovery adds up to the opening total
+                    assertEquals(accountCount * openingCents, total, "snapshot " + round);
+                }
+            } finally {
+                stop.set(true);
+                transfers.shutdown();
+                assertTrue(transfers.awaitTermination(10, TimeUnit.SECONDS));
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void replayRestoresChangesJournaledAfterTheSnapshot() throws Exception {
+        Customer customer = new Customer("Ada", "Lovelace", "1815-12-10", "0123456789", "ada@example.com",
+                "CUST01", "secret");
+        Savings savings = new Savings("S100000", "Branch", 50_000L, 20_000L);
+        int period = InterestScheduler.duePeriod();
+        savings.restoreLastInterestPeriod(period - 1);
+        customer.addAccount(savings);
+
+        try (TransactionJournal journal = TransactionJournal.open(journalDirectory)) {
+            TransactionService service = new TransactionService(8, new TransferEngine(8), journal);
+            service.deposit(savings, 1_000L, null).join();
+            DatabaseSnapshot.write(file, List.of(customer), journal);
+
+            // Changes after the cut that only the journal knows about (the process "crashes" before the next snapshot)
+            service.deposit(savings, 2_500L, null).join();
+            long balance = savings.getBalanceCents();
+            assertEquals(1, savings.claimInterestPeriods(period));
+            long interest = InterestScheduler.compoundInterest(balance, savings.getAnnualRatePpm(), 1);
+            assertTrue(savings.compareAndSetBalance(balance, balance + interest));
+            journal.append(TransactionType.INTEREST, savings, interest, balance + interest, null, "Interest", period)
+                    .join();
+            service.shutdown();
+
+            Account loaded = DatabaseSnapshot.load(file).get(0).getAccounts().get(0);
+            assertEquals(51_000L, loaded.getBalanceCents());
+            long position = DatabaseSnapshot.journalPosition(file);
+            assertEquals(2L, DatabaseSnapshot.replay(journal, position, number -> loaded));
+            assertEquals(savings.getBalanceCents(), loaded.getBalanceCents());
+            assertEquals(period, loaded.getLastInterestPeriod());
+            // Replaying again (e.g. a crash during recovery) changes nothing
+            DatabaseSnapshot.replay(journal, position, number -> loaded);
+            assertEquals(savings.getBalanceCents(), loaded.getBalanceCents());
+        }
+    }
+}
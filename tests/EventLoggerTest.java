@@ -0,0 +1,227 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ring wraparound, the DROP and SAMPLE policies, and the parked idle writer of EventLogger.
+ * A ring of capacity 4 is used; to fill it deterministically the writer is stalled
+ * inside its first write to the INFO stream (see BlockingStream).
+ */
+class EventLoggerTest {
+
+    private static final long TIMEOUT_SECONDS = 10L;
+
+    private EventLogger logger;
+
+    @AfterEach
+    void closeLogger() {
+        if (logger != null) {
+            logger.close();
+        }
+    }
+
+    // --- Wraparound ---
+
+    @Test
+    void ringWrapsAroundWithoutLosingOrReorderingEvents() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        logger = new EventLogger(4, EventLogger.Policy.DROP, 1, print(out), print(err));
+
+        int events = 1_000; // each slot is reused about 250 times
+        for (int i = 0; i < events; i++) {
+            while (!logger.log(EventLogger.Type.DEPOSITED, "S1001", i, i)) {
+                Thread.yield(); // ring full: wait for the writer
+            }
+        }
+        logger.close();
+
+        List<String> lines = lines(out);
+        assertEquals(events, lines.size());
+        for (int i = 0; i < events; i++) {
+            assertTrue(lines.get(i).endsWith(" amount=" + Money.format(i) + " balance=" + Money.format(i)),
+                    "line " + i + ": " + lines.get(i));
+        }
+    }
+
+    @Test
+    void linesCarryTheTypeAccountAndDetail() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        logger = new EventLogger(16, EventLogger.Policy.DROP, 1, print(out), print(err));
+
+        logger.log(EventLogger.Type.WITHDRAWN, "I3001", 10_000L, 40_000L, 500L);
+        logger.log(EventLogger.Type.OVERDRAFT_LIMIT_EXCEEDED, "C2001", 90_000L, -5_000L, 50_000L);
+        logger.log(EventLogger.Type.WITHDRAWN, "S1001", 100L, 900L);
+        logger.close();
+
+        List<String> info = lines(out);
+        assertEquals(2, info.size());
+        assertTrue(info.get(0).contains(" INFO event=WITHDRAWN account=I3001 amount=100.00 balance=400.00 penalty=5.00"),
+                info.get(0));
+        assertTrue(info.get(1).endsWith(" balance=9.00"), info.get(1)); // a zero detail is left out
+        List<String> warn = lines(err);
+        assertEquals(1, warn.size());
+        assertTrue(warn.get(0).contains(" WARN event=OVERDRAFT_LIMIT_EXCEEDED account=C2001 amount=900.00"
+                + " balance=-50.00 overdraftLimit=500.00"), warn.get(0));
+    }
+
+    // --- Policies ---
+
+    @Test
+    void dropPolicyDiscardsNewEventsOnlyWhenTheRingIsFull() throws InterruptedException {
+        BlockingStream out = new BlockingStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        logger = new EventLogger(4, EventLogger.Policy.DROP, 1, print(out), print(err));
+
+        assertTrue(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L));
+        out.awaitStalled(); // the writer has released slot 0 and is stuck writing event 0
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L), "event " + i + " fits the ring");
+        }
+        for (int i = 0; i < 6; i++) {
+            assertFalse(logger.log(EventLogger.Type.INSUFFICIENT_FUNDS, "S1001", 1L, 1L), "ring is full");
+        }
+        assertEquals(6L, logger.getDroppedCount());
+        assertEquals(0L, logger.getSampledOutCount());
+
+        out.release();
+        logger.close();
+        assertEquals(5, lines(out).size());
+        assertTrue(lines(err).contains("EventLogger: 6 events dropped, 0 sampled out under load so far"), err.toString());
+    }
+
+    @Test
+    void samplePolicySamplesInfoEventsButKeepsWarnings() throws InterruptedException {
+        BlockingStream out = new BlockingStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        // Once the ring is 3/4 full, INFO events are kept with probability 1 / Integer.MAX_VALUE
+        logger = new EventLogger(4, EventLogger.Policy.SAMPLE, Integer.MAX_VALUE, print(out), print(err));
+
+        assertTrue(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L));
+        out.awaitStalled();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L), "below the sampling threshold");
+        }
+        assertFalse(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L), "INFO sampled out");
+        assertTrue(logger.log(EventLogger.Type.DEPOSIT_INVALID, "S1001", -1L, 1L), "WARN is never sampled");
+        assertFalse(logger.log(EventLogger.Type.DEPOSIT_INVALID, "S1001", -1L, 1L), "ring is full");
+        assertEquals(1L, logger.getSampledOutCount());
+        assertEquals(1L, logger.getDroppedCount());
+
+        out.release();
+        logger.close();
+        assertEquals(4, lines(out).size());
+        assertEquals(1L, lines(err).stream().filter(line -> line.contains("event=DEPOSIT_INVALID")).count());
+    }
+
+    // --- Idle writer ---
+
+    @Test
+    void idleWriterParksUntilAnEventWakesIt() throws InterruptedException {
+        RecordingStream out = new RecordingStream();
+        logger = new EventLogger(16, EventLogger.Policy.DROP, 1, print(out), print(new ByteArrayOutputStream()));
+
+        logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L);
+        Thread writer = out.awaitWriter();
+        // With the ring drained the writer waits without a timeout instead of polling
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, writer.getState());
+
+        logger.log(EventLogger.Type.DEPOSITED, "S1001", 2L, 2L);
+        while (lines(out).size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(2, lines(out).size(), "the second event woke the writer");
+    }
+
+    @Test
+    void closedLoggerRejectsEvents() {
+        logger = new EventLogger(4, EventLogger.Policy.DROP, 1, print(new ByteArrayOutputStream()),
+                print(new ByteArrayOutputStream()));
+        logger.close();
+        assertFalse(logger.log(EventLogger.Type.DEPOSITED, "S1001", 1L, 1L));
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Output stream whose first write blocks until released, stalling the writer thread.
+     */
+    private static final class BlockingStream extends ByteArrayOutputStream {
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            stalled.countDown();
+            try {
+                released.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.write(bytes, offset, length);
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        void awaitStalled() throws InterruptedException {
+            assertTrue(stalled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "writer never wrote");
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+
+    /**
+     * Output stream that remembers the thread writing to it, i.e. the logger's writer thread.
+     */
+    private static final class RecordingStream extends ByteArrayOutputStream {
+        private final CountDownLatch written = new CountDownLatch(1);
+        private volatile Thread writer;
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            writer = Thread.currentThread();
+            written.countDown();
+            super.write(bytes, offset, length);
+        }
+
+        Thread awaitWriter() throws InterruptedException {
+            assertTrue(written.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "writer never wrote");
+            return writer;
+        }
+    }
+
+    private static PrintStream print(ByteArrayOutputStream stream) {
+        return new PrintStream(stream, false, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> lines(ByteArrayOutputStream stream) {
+        return stream.toString(StandardCharsets.UTF_8).lines()
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * FeeSweepEngine's per-account fee day: a sweep repeated for the same day (as after a
+ * failed or interrupted run) charges nothing twice, and the day survives a restart
+ * through the FEE record.
+ */
+class FeeSweepEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 31);
+
+    private ForkJoinPool pool;
+    private Path journalDirectory;
+
+    @BeforeEach
+    void createPool() throws IOException {
+        pool = new ForkJoinPool(4);
+        journalDirectory = Files.createTempDirectory("fee-sweep-test");
+    }
+
+    @AfterEach
+    void shutDownPool() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> paths = Files.walk(journalDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void repeatedSweepForTheSameDayChargesEachAccountOnce() throws IOException {
+        // Enough accounts for the chunks to split; every one is below the minimum balance
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            accounts.add(new Savings("S" + (100_000 + i), "Branch", 5_000L, 20_000L));
+        }
+        FeeSweepEngine engine = new FeeSweepEngine(pool, null);
+
+        FeeSweepEngine.Result first = engine.runSweep(accounts, DAY);
+        FeeSweepEngine.Result again = engine.runSweep(accounts, DAY);
+        FeeSweepEngine.Result nextDay = engine.runSweep(accounts, DAY.plusDays(1));
+
+        assertEquals(10_000, first.getFeesCharged());
+        assertEquals(0, again.getFeesCharged());
+        assertEquals(10_000, nextDay.getFeesCharged());
+        for (Account account : accounts) {
+            assertEquals(DAY.plusDays(1).toEpochDay(), account.getLastFeeDay());
+        }
+    }
+
+    @Test
+    void feeRecordCarriesTheDayThroughReplay() throws IOException {
+        Savings account = new Savings("S100000", "Branch", 5_000L, 20_000L);
+        try (TransactionJournal journal = TransactionJournal.open(journalDirectory)) {
+            FeeSweepEngine.Result result = new FeeSweepEngine(pool, journal).runSweep(List.of(account), DAY);
+            assertEquals(1, result.getFeesCharged());
+
+            // The state a restart from a snapshot taken before the sweep would load
+            Savings restarted = new Savings("S100000", "Branch", 5_000L, 20_000L);
+            assertEquals(1L, DatabaseSnapshot.replay(journal, 0L, number -> restarted));
+            assertEquals(account.getBalanceCents(), restarted.getBalanceCents());
+            assertEquals(DAY.toEpochDay(), restarted.getLastFeeDay());
+
+            // Retrying the sweep after that restart charges nothing more
+            assertEquals(0, new FeeSweepEngine(pool, journal).runSweep(List.of(restarted), DAY).getFeesCharged());
+        }
+    }
+}
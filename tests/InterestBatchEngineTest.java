@@ -0,0 +1,159 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * InterestBatchEngine against the per-account applyInterest() it replaces: every account
+ * is built twice, one copy is posted by the engine and the other by applyInterest(), and
+ * the two must end with the same balance and posted period.
+ */
+class InterestBatchEngineTest {
+
+    private static final int MONTHS_BEHIND = 3;
+
+    private ForkJoinPool pool;
+    private InterestBatchEngine engine;
+    private int due;
+
+    @BeforeEach
+    void createEngine() {
+        pool = new ForkJoinPool(4);
+        engine = new InterestBatchEngine(pool, null);
+        due = InterestScheduler.duePeriod();
+    }
+
+    @AfterEach
+    void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void batchMatchesApplyInterestForEveryAccountType() throws IOException {
+        List<Account> batched = new ArrayList<>();
+        List<Account> applied = new ArrayList<>();
+        // Enough accounts for the chunks to split several times
+        for (int i = 0; i < 5_000; i++) {
+            long balance = 100_000L + (long) i * 7_919L;
+            long rate = 1_000L + i * 13L;
+            batched.add(behind(new Savings("S" + (100_000 + i), "Branch", balance, rate)));
+            applied.add(behind(new Savings("S" + (100_000 + i), "Branch", balance, rate)));
+            batched.add(behind(new InvestmentAccount("I" + (100_000 + i), "Branch", balance * 3, rate * 2)));
+            applied.add(behind(new InvestmentAccount("I" + (100_000 + i), "Branch", balance * 3, rate * 2)));
+            batched.add(behind(new ChequeAccount("C" + (100_000 + i), "Branch", balance, 50_000L)));
+            applied.add(behind(new ChequeAccount("C" + (100_000 + i), "Branch", balance, 50_000L)));
+        }
+
+        InterestBatchEngine.Result result = engine.postMonthlyInterest(batched, due);
+        long expectedTotal = 0L;
+        for (Account account : applied) {
+            long before = account.getBalanceCents();
+            account.applyInterest();
+            expectedTotal += account.getBalanceCents() - before;
+        }
+
+        assertSameOutcome(applied, batched);
+        assertEquals(expectedTotal, result.getTotalInterestCents());
+        assertEquals(10_000, result.getAccountsPosted()); // Cheque accounts earn no interest
+        assertEquals(0L, result.getWriteBackRetries());
+    }
+
+    @Test
+    void accountChangedDuringTheRunIsRecomputedFromItsNewBalance() throws IOException {
+        List<Account> batched = new ArrayList<>();
+        List<Account> applied = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            long balance = 250_000L + i;
+            if (i % 10 == 0) {
+                batched.add(behind(new DepositsWhenGathered("S" + (100_000 + i), balance, 20_000L, 123_456L)));
+                Account twin = behind(new Savings("S" + (100_000 + i), "Branch", balance, 20_000L));
+                twin.depositCents(123_456L);
+                applied.add(twin);
+            } else {
+                batched.add(behind(new Savings("S" + (100_000 + i), "Branch", balance, 20_000L)));
+                applied.add(behind(new Savings("S" + (100_000 + i), "Branch", balance, 20_000L)));
+            }
+        }
+
+        InterestBatchEngine.Result result = engine.postMonthlyInterest(batched, due);
+        for (Account account : applied) {
+            account.applyInterest();
+        }
+
+        assertSameOutcome(applied, batched);
+        assertEquals(10L, result.getWriteBackRetries());
+    }
+
+    @Test
+    void secondRunForTheSamePeriodPostsNothing() throws IOException {
+        List<Account> accounts = List.of(behind(new Savings("S100000", "Branch", 1_000_000L, 20_000L)));
+        engine.postMonthlyInterest(accounts, due);
+        long balance = accounts.get(0).getBalanceCents();
+
+        InterestBatchEngine.Result again = engine.postMonthlyInterest(accounts, due);
+
+        assertEquals(0, again.getAccountsPosted());
+        assertEquals(balance, accounts.get(0).getBalanceCents());
+    }
+
+    @Test
+    void accountNeverStartedIsOwedNothingBeforeItsFirstPeriod() throws IOException {
+        Savings account = new Savings("S100000", "Branch", 1_000_000L, 20_000L);
+        assertEquals(Account.NO_INTEREST_PERIOD, account.getLastInterestPeriod());
+
+        InterestBatchEngine.Result first = engine.postMonthlyInterest(List.of(account), due);
+        assertEquals(0, first.getAccountsPosted());
+        assertEquals(1_000_000L, account.getBalanceCents());
+        assertEquals(due, account.getLastInterestPeriod());
+
+        InterestBatchEngine.Result next = engine.postMonthlyInterest(List.of(account), due + 1);
+        assertEquals(1, next.getAccountsPosted());
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Savings account that deposits once, right after the engine reads its balance for the
+     * columns, so the engine's compare-and-set against that balance fails.
+     */
+    private static final class DepositsWhenGathered extends Savings {
+        private final long depositCents;
+        private boolean armed = true;
+
+        DepositsWhenGathered(String accountNumber, long balanceCents, long ratePpm, long depositCents) {
+            super(accountNumber, "Branch", balanceCents, ratePpm);
+            this.depositCents = depositCents;
+        }
+
+        @Override
+        public long getBalanceCents() {
+            long balance = super.getBalanceCents();
+            if (armed) {
+                armed = false;
+                depositCents(depositCents);
+            }
+            return balance;
+        }
+    }
+
+    private <A extends Account> A behind(A account) {
+        account.restoreLastInterestPeriod(due - MONTHS_BEHIND);
+        return account;
+    }
+
+    private static void assertSameOutcome(List<Account> expected, List<Account> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            String number = expected.get(i).getAccountNumber();
+            assertEquals(expected.get(i).getBalanceCents(), actual.get(i).getBalanceCents(), number);
+            assertEquals(expected.get(i).getLastInterestPeriod(), actual.get(i).getLastInterestPeriod(), number);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bucket boundaries and percentiles of LatencyHistogram.
+ *
+ * Like the benchmarks, the tests are compiled separately from the application: put the
+ * application classes and junit-jupiter on the classpath and run them with the JUnit
+ * Platform console launcher, e.g. {@code --select-package com.bankingsystem}.
+ */
+class LatencyHistogramTest {
+
+    // --- Bucket arithmetic ---
+
+    @Test
+    void valuesBelow128AreCountedExactly() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals((int) value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.highestValueIn((int) value));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousUpToLongMaxValue() {
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        for (int i = 0; i < last; i++) {
+            long highest = LatencyHistogram.highestValueIn(i);
+            assertEquals(i, LatencyHistogram.indexOf(highest), "highest value of bucket " + i);
+            assertEquals(i + 1, LatencyHistogram.indexOf(highest + 1), "first value after bucket " + i);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(last));
+    }
+
+    @Test
+    void powerOfTwoStartsANewBucket() {
+        for (int bit = 7; bit < 63; bit++) {
+            long power = 1L << bit;
+            assertEquals(LatencyHistogram.indexOf(power - 1) + 1, LatencyHistogram.indexOf(power), "2^" + bit);
+            assertEquals(power - 1, LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(power - 1)), "2^" + bit + " - 1");
+        }
+    }
+
+    @Test
+    void bucketUpperBoundIsWithinOneSixtyFourthOfTheValue() {
+        long[] values = {128, 129, 191, 192, 255, 256, 1_000, 12_345, 999_999, 1L << 40, (1L << 40) + 1, Long.MAX_VALUE - 1};
+        for (long value : values) {
+            long highest = LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value, "upper bound " + highest + " below " + value);
+            assertTrue(highest - value <= value / 64, "upper bound " + highest + " too far from " + value);
+        }
+    }
+
+    // --- Recording and percentiles ---
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getValueAtPercentile(99.0));
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0.0, histogram.getMeanNanos());
+    }
+
+    @Test
+    void percentilesReportBucketUpperBoundsCappedAtTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1_000L, histogram.getCount());
+        assertEquals(1_000L, histogram.getMaxNanos());
+        assertEquals(500.5, histogram.getMeanNanos());
+        assertEquals(100L, histogram.getValueAtPercentile(10.0)); // still in the exact range
+        assertEquals(LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(500)), histogram.getValueAtPercentile(50.0));
+        assertEquals(1_000L, histogram.getValueAtPercentile(100.0));
+        assertEquals(1L, histogram.getValueAtPercentile(0.0));
+    }
+
+    @Test
+    void negativeLatenciesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        assertEquals(1L, histogram.getCount());
+        assertEquals(0L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    void addMergesCountsAndMaximum() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10L);
+        second.record(10L);
+        second.record(5_000L);
+        first.add(second);
+        assertEquals(3L, first.getCount());
+        assertEquals(5_000L, first.getMaxNanos());
+        assertEquals(10L, first.getValueAtPercentile(50.0));
+        assertEquals(5_000L, first.getValueAtPercentile(100.0));
+    }
+}
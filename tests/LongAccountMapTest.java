@@ -0,0 +1,197 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Probing and backward-shift deletion of LongAccountMap.
+ * The colliding ids are found by hashing, so the tests do not depend on AccountId's
+ * hash constants; a default map has 16 slots.
+ */
+class LongAccountMapTest {
+
+    private static final int DEFAULT_SLOTS = 16;
+
+    // --- Backward-shift deletion ---
+
+    @Test
+    void removingFromTheMiddleOfAProbeRunKeepsLaterEntriesReachable() {
+        List<Long> ids = idsWithHomeSlot(3, 4);
+        LongAccountMap map = new LongAccountMap();
+        for (long id : ids) {
+            map.put(id, account(id));
+        }
+
+        long removed = ids.get(1);
+        assertEquals(removed, map.remove(removed).getId());
+        assertNull(map.get(removed));
+        for (int i : new int[] {0, 2, 3}) {
+            assertFound(map, ids.get(i));
+        }
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void removingKeepsEntriesWhoseHomeIsAfterTheGap() {
+        // Runs for slots 5 and 6 interleave: A5 B5 A6 C5 B6 occupy slots 5..9
+        List<Long> five = idsWithHomeSlot(5, 3);
+        List<Long> six = idsWithHomeSlot(6, 2);
+        long[] order = {five.get(0), five.get(1), six.get(0), five.get(2), six.get(1)};
+        LongAccountMap map = new LongAccountMap();
+        for (long id : order) {
+            map.put(id, account(id));
+        }
+
+        map.remove(five.get(0));
+        map.remove(six.get(0));
+        for (long id : new long[] {five.get(1), five.get(2), six.get(1)}) {
+            assertFound(map, id);
+        }
+        assertFalse(map.containsKey(five.get(0)));
+        assertFalse(map.containsKey(six.get(0)));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void removingInARunThatWrapsAroundTheTableEnd() {
+        List<Long> ids = idsWithHomeSlot(DEFAULT_SLOTS - 1, 4); // slots 15, 0, 1, 2
+        LongAccountMap map = new LongAccountMap();
+        for (long id : ids) {
+            map.put(id, account(id));
+        }
+
+        map.remove(ids.get(0));
+        for (int i = 1; i < ids.size(); i++) {
+            assertFound(map, ids.get(i));
+        }
+        map.remove(ids.get(2));
+        assertFound(map, ids.get(1));
+        assertFound(map, ids.get(3));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(42);
+        LongAccountMap map = new LongAccountMap();
+        Map<Long, Account> expected = new HashMap<>();
+        for (int step = 0; step < 100_000; step++) {
+            long id = idOf(random.nextInt(512));
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(id), map.remove(id), "remove " + id);
+            } else {
+                Account account = account(id);
+                assertSame(expected.put(id, account), map.put(id, account), "put " + id);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int n = 0; n < 512; n++) {
+            long id = idOf(n);
+            assertSame(expected.get(id), map.get(id), "get " + id);
+        }
+    }
+
+    // --- Edge cases ---
+
+    @Test
+    void invalidIdsAreNeverFound() {
+        LongAccountMap map = new LongAccountMap();
+        map.put(idOf(1), account(idOf(1)));
+        assertNull(map.get(AccountId.NONE));
+        assertNull(map.remove(AccountId.NONE));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongAccountMap map = new LongAccountMap();
+        for (int n = 0; n < 100; n++) {
+            map.put(idOf(n), account(idOf(n)));
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(idOf(7)));
+    }
+
+    // --- Concurrent reads ---
+
+    @Test
+    void getWhileAWriterResizesNeverThrowsOrHangs() throws InterruptedException {
+        // A fresh map per round, so the reader keeps racing resizes from the smallest table up
+        AtomicReference<LongAccountMap> current = new AtomicReference<>(new LongAccountMap());
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Random random = new Random(7);
+            try {
+                while (!done.get()) {
+                    current.get().get(idOf(random.nextInt(4_096)));
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int round = 0; round < 2_000 && failure.get() == null; round++) {
+            LongAccountMap map = new LongAccountMap();
+            current.set(map);
+            for (int n = 0; n < 4_096; n++) {
+                map.put(idOf(n), account(idOf(n)));
+            }
+            for (int n = 0; n < 4_096; n += 2) {
+                map.remove(idOf(n));
+            }
+        }
+        done.set(true);
+        reader.join(10_000);
+        assertFalse(reader.isAlive(), "reader stuck in get");
+        assertNull(failure.get());
+    }
+
+    // --- Helpers ---
+
+    private static void assertFound(LongAccountMap map, long id) {
+        Account account = map.get(id);
+        assertEquals(id, account == null ? AccountId.NONE : account.getId(), "lookup of " + AccountId.decode(id));
+    }
+
+    /**
+     * @return The id of the n-th Cheque account number, C100000 onwards.
+     */
+    private static long idOf(int n) {
+        return AccountId.encode("C" + (100_000 + n));
+    }
+
+    /**
+     * @return The first {@code count} account ids whose home slot in a 16-slot table is {@code slot}.
+     */
+    private static List<Long> idsWithHomeSlot(int slot, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int n = 0; ids.size() < count; n++) {
+            long id = idOf(n);
+            if (((int) AccountId.hash(id) & (DEFAULT_SLOTS - 1)) == slot) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return An account whose getId() is {@code id}.
+     */
+    private static Account account(long id) {
+        return new ChequeAccount(AccountId.decode(id), "Test Branch", 0L, 0L);
+    }
+}
@@ -0,0 +1,142 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Recovery of TransactionJournal after a crash. A torn record is simulated by zeroing
+ * its commit marker, or part of its body, in the segment file while the journal is closed.
+ */
+class TransactionJournalTest {
+
+    private static final String ACCOUNT = "S1001";
+
+    private Path directory;
+    private Savings account;
+
+    @BeforeEach
+    void createJournalDirectory() throws IOException {
+        directory = Files.createTempDirectory("journal-test");
+        account = new Savings(ACCOUNT, 0.0, 0.0, "Test Branch");
+    }
+
+    @AfterEach
+    void deleteJournalDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void committedRecordsSurviveReopen() throws IOException {
+        appendDeposits(5);
+
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            assertEquals(5L, journal.size());
+            assertEquals(5, journal.countForAccount(ACCOUNT));
+            JournalRecord record = journal.read(2L, new JournalRecord());
+            assertEquals(TransactionType.DEPOSIT, record.getType());
+            assertEquals(ACCOUNT, record.getAccountNumber());
+            assertEquals(2L, record.getAmountCents());
+            assertEquals(2L, record.getBalanceAfterCents());
+            assertNull(journal.read(5L, new JournalRecord()));
+        }
+    }
+
+    @Test
+    void tornRecordEndsTheJournal() throws IOException {
+        appendDeposits(10);
+        tear(3L);
+
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            assertEquals(3L, journal.size());
+            assertEquals(3, journal.countForAccount(ACCOUNT));
+        }
+    }
+
+    @Test
+    void recordWithAMarkerButATornBodyEndsTheJournal() throws IOException {
+        appendDeposits(10);
+        // The marker's page reached disk but the page with the rest of the record did not
+        overwrite(6L, JournalRecord.OFF_BALANCE);
+
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            assertEquals(6L, journal.size());
+            assertEquals(6, journal.countForAccount(ACCOUNT));
+        }
+    }
+
+    @Test
+    void recordsAfterATornRecordAreNotRevivedByLaterAppends() throws IOException {
+        appendDeposits(10);
+        tear(3L);
+
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            journal.append(TransactionType.WITHDRAWAL, account, 99L, 99L, null, null).join();
+        }
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            // Slots 4..9 still hold the old records, but their markers were cleared on recovery
+            assertEquals(4L, journal.size());
+            assertEquals(TransactionType.WITHDRAWAL, journal.read(3L, new JournalRecord()).getType());
+        }
+    }
+
+    @Test
+    void tornRecordInAnEarlierSegmentDiscardsLaterSegments() throws IOException {
+        long records = TransactionJournal.RECORDS_PER_SEGMENT + 5L;
+        appendDeposits(records);
+        tear(100L);
+
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            assertEquals(100L, journal.size());
+            journal.append(TransactionType.WITHDRAWAL, account, 1L, 1L, null, null).join();
+        }
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            assertEquals(101L, journal.size());
+        }
+    }
+
+    // --- Helpers ---
+
+    private void appendDeposits(long count) throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(directory)) {
+            for (long i = 0; i < count; i++) {
+                journal.append(TransactionType.DEPOSIT, account, i, i, null, null);
+            }
+        }
+    }
+
+    /**
+     * Zeroes the commit marker of the record at {@code position}, as if it had not reached disk.
+     */
+    private void tear(long position) throws IOException {
+        overwrite(position, JournalRecord.OFF_MARKER);
+    }
+
+    /**
+     * Zeroes the four bytes at {@code field} in the record at {@code position}.
+     */
+    private void overwrite(long position, int field) throws IOException {
+        int segment = (int) (position / TransactionJournal.RECORDS_PER_SEGMENT);
+        long offset = (position % TransactionJournal.RECORDS_PER_SEGMENT) * JournalRecord.RECORD_SIZE + field;
+        Path file = directory.resolve(String.format("segment-%08d.jnl", segment));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES), offset);
+        }
+    }
+}
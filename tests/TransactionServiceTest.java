@@ -0,0 +1,46 @@
+package com.bankingsystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TransactionService's rejections: callers always get a future, failed with a
+ * RejectedExecutionException, and the rejected operation changes no balance.
+ */
+class TransactionServiceTest {
+
+    @Test
+    void operationAfterShutdownFailsTheFutureInsteadOfThrowing() {
+        TransactionService service = new TransactionService(8, new TransferEngine(8));
+        Savings account = new Savings("S100000", "Branch", 50_000L, 20_000L);
+        service.shutdown();
+
+        assertRejected(service.deposit(account, 1_000L, null));
+        assertRejected(service.withdraw(account, 1_000L, null));
+        assertRejected(service.transfer(account, new Savings("S100001", "Branch", 0L, 20_000L), 1_000L));
+        assertEquals(50_000L, account.getBalanceCents());
+    }
+
+    @Test
+    void operationBeyondMaxInFlightIsRejected() {
+        TransactionService service = new TransactionService(0, new TransferEngine(8));
+        Savings account = new Savings("S100000", "Branch", 50_000L, 20_000L);
+        try {
+            assertRejected(service.deposit(account, 1_000L, null));
+            assertEquals(50_000L, account.getBalanceCents());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void assertRejected(CompletableFuture<TransactionService.Receipt> future) {
+        assertTrue(future.isCompletedExceptionally(), "completed exceptionally");
+        Throwable error = future.handle((receipt, e) -> e).join();
+        assertTrue(error instanceof RejectedExecutionException, "rejected, was " + error);
+    }
+}
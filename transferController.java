@@ -1,27 +1,21 @@
 package com.bankingsystem;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.TextField;
-import javafx.stage.Stage;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
-public class transferController {
+public class transferController implements SceneNavigator.Refreshable, AccountContextAware {
 
     // --- FXML Element Connections ---
     @FXML private TextField amountField;
@@ -35,9 +29,10 @@ public class transferController {
     private String sourceAccountType;
     private Customer currentCustomer;
 
-    // Map to hold all of the customer's accounts (except the source) for the 'Transfer To' dropdown
-    private final Map<String, Account> destinationAccountMap = new HashMap<>();
-    private Account selectedDestinationAccount;
+    // Map from each 'Transfer To' dropdown entry to the number of the account it names (all of the
+    // customer's accounts except the source); the account itself is looked up when transferring
+    private final Map<String, String> destinationAccountMap = new HashMap<>();
+    private String selectedDestinationNumber;
 
     // --- Initialization ---
 
@@ -50,6 +45,21 @@ public class transferController {
         transferToButton.setText("Select Destination Account");
     }
 
+    /**
+     * Clears the previous visit's input and status each time the (cached) page is shown.
+     * The source account is set afterwards by the calling page.
+     */
+    @Override
+    public void refresh() {
+        messageLabel.setText("");
+        sourceAccountLabel.setText("");
+        amountField.clear();
+        transferToButton.setText("Select Destination Account");
+        transferToButton.setDisable(false);
+        transferButton.setDisable(false);
+        selectedDestinationNumber = null;
+    }
+
     /**
      * REQUIRED: Method to receive the source account object and set up the destination dropdown.
      * This method is called by the previous controller (e.g., SavingsAccountPageController)
@@ -57,6 +67,7 @@ public class transferController {
      * @param account The specific Account instance selected as the source.
      * @param accountType The type of the source account (e.g., "Savings", "Investment").
      */
+    @Override
     public void setSourceAccount(Account account, String accountType) {
         this.sourceAccount = account;
         this.sourceAccountType = accountType;
@@ -103,12 +114,12 @@ public class transferController {
             String displayType = account.getClass().getSimpleName();
             String accountDisplay = String.format("%s (%s)", displayType, account.getAccountNumber());
 
-            destinationAccountMap.put(accountDisplay, account);
+            destinationAccountMap.put(accountDisplay, account.getAccountNumber());
 
             MenuItem toItem = new MenuItem(accountDisplay);
             toItem.setOnAction(e -> {
                 transferToButton.setText(toItem.getText());
-                selectedDestinationAccount = destinationAccountMap.get(toItem.getText());
+                selectedDestinationNumber = destinationAccountMap.get(toItem.getText());
                 messageLabel.setText(""); // Clear status message on selection change
             });
             transferToButton.getItems().add(toItem);
@@ -132,7 +143,7 @@ public class transferController {
         String amountText = amountField.getText();
 
         // 1. Validation
-        if (amountText.trim().isEmpty() || selectedDestinationAccount == null) {
+        if (amountText.trim().isEmpty() || selectedDestinationNumber == null) {
             messageLabel.setText("Error: Please select a destination and enter an amount.");
             messageLabel.setTextFill(javafx.scene.paint.Color.RED);
             return;
@@ -147,89 +158,20 @@ public class transferController {
                 return;
             }
 
-            // 2. Perform Transaction: Attempt withdrawal from Source
-            boolean withdrawalSuccess = sourceAccount.withdraw(amount);
-
-            if (!withdrawalSuccess) {
-                messageLabel.setText(
-                        String.format("Transfer failed. Insufficient funds in source account. Balance: $%,.2f",
-                                sourceAccount.getBalance())
-                );
-                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
-                return;
-            }
-
-            // 3. Perform Transaction: Deposit to Destination
-            selectedDestinationAccount.deposit(amount);
-
-
-            // --- 4. Logging the Successful Transaction ---
-            // Log transaction in *both* files (source and destination)
-            String sourceFilename = getLogFileName(sourceAccount);
-            String destFilename = getLogFileName(selectedDestinationAccount);
-
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
-            LocalDateTime now = LocalDateTime.now();
-            String timestamp = dtf.format(now);
-
-            String sourceAccountNum = sourceAccount.getAccountNumber();
-            String destAccountNum = selectedDestinationAccount.getAccountNumber();
-            String sourceAccountTypeDisplay = sourceAccount.getClass().getSimpleName();
-            String destAccountTypeDisplay = selectedDestinationAccount.getClass().getSimpleName();
-
-            // Log Record for Source (Withdrawal - TRANSFER OUT)
-            String sourceTransactionRecord = String.format(
-                    "[%s] TRANSFER OUT | Type: %s | To Account: %s (%s) | Amount: $%.2f | New Balance: $%,.2f\n",
-                    timestamp,
-                    sourceAccountTypeDisplay,
-                    destAccountNum,
-                    destAccountTypeDisplay,
-                    amount,
-                    sourceAccount.getBalance()
-            );
-
-            // Log Record for Destination (Deposit - TRANSFER IN)
-            String destTransactionRecord = String.format(
-                    "[%s] TRANSFER IN | Type: %s | From Account: %s (%s) | Amount: $%.2f | New Balance: $%,.2f\n",
-                    timestamp,
-                    destAccountTypeDisplay,
-                    sourceAccountNum,
-                    sourceAccountTypeDisplay,
-                    amount,
-                    selectedDestinationAccount.getBalance()
-            );
-
-            // Use try-with-resources for reliable file writing
-            try (BufferedWriter bwSource = new BufferedWriter(new FileWriter(sourceFilename, true));
-                 BufferedWriter bwDest = new BufferedWriter(new FileWriter(destFilename, true))) {
-
-                bwSource.write(sourceTransactionRecord);
-                bwDest.write(destTransactionRecord);
-
-
-                // 5. Success Feedback and UI Update
-                messageLabel.setText(String.format("Successfully transferred $%.2f from %s to %s. Source Bal: $%,.2f. Dest Bal: $%,.2f.",
-                        amount,
-                        sourceAccountNum,
-                        destAccountNum,
-                        sourceAccount.getBalance(),
-                        selectedDestinationAccount.getBalance()));
-                messageLabel.setTextFill(javafx.scene.paint.Color.web("#38a169")); // Green color for success
-
-                // Clear input fields and reset destination selection
-                amountField.clear();
-                transferToButton.setText("Select Destination Account");
-                selectedDestinationAccount = null;
-
-                // Update the source balance display
-                updateSourceAccountLabel();
+            // 2-4. Perform the transfer and record it for both accounts off the FX thread
+            String destination = selectedDestinationNumber;
+            messageLabel.setText("Processing transfer...");
+            messageLabel.setTextFill(javafx.scene.paint.Color.GRAY);
+            transferButton.setDisable(true);
 
-            } catch (IOException e) {
-                // If the transaction succeeded in the model but failed to log to disk
-                e.printStackTrace();
-                messageLabel.setText("System Warning: Transfer succeeded, but failed to save transaction records to file.");
-                messageLabel.setTextFill(javafx.scene.paint.Color.ORANGE);
-            }
+            long cents = Money.fromAmount(amount);
+            BankingEvents.Transfer transferEvent = new BankingEvents.Transfer();
+            transferEvent.begin();
+            TransactionService.getInstance().transfer(sourceAccount, destination, cents)
+                    .whenComplete((receipt, error) -> Platform.runLater(() -> {
+                        commitTransferEvent(transferEvent, destination, cents, receipt, error);
+                        showTransferResult(amount, destination, receipt, error);
+                    }));
 
         } catch (NumberFormatException e) {
             messageLabel.setText("Error: Invalid amount entered. Please enter a valid number (e.g., 100.00).");
@@ -238,21 +180,84 @@ public class transferController {
     }
 
     /**
-     * Helper to determine the transaction log file based on the specific account type instance.
-     * @param account The account instance.
-     * @return The filename for the transaction log.
+     * Completes the JFR Transfer event started when the button was clicked, so its
+     * duration covers the queueing, the transfer itself and the journal writes.
      */
-    private String getLogFileName(Account account) {
-        if (account instanceof Savings) {
-            return "savings.txt";
-        } else if (account instanceof InvestmentAccount) {
-            return "investment.txt";
-        } else if (account instanceof ChequeAccount) {
-            return "cheque.txt";
+    private void commitTransferEvent(BankingEvents.Transfer transferEvent, String destination, long cents,
+                                     TransactionService.Receipt receipt, Throwable error) {
+        transferEvent.end();
+        if (transferEvent.shouldCommit()) {
+            transferEvent.sourceAccount = sourceAccount.getAccountNumber();
+            transferEvent.destinationAccount = destination;
+            transferEvent.amountCents = cents;
+            transferEvent.outcome = error != null ? "ERROR" : receipt.getStatus().name();
+            transferEvent.commit();
         }
-        return "transactions_log.txt"; // Default fallback
     }
 
+    /**
+     * Shows the outcome of a transfer. Runs on the FX thread.
+     */
+    private void showTransferResult(double amount, String destination, TransactionService.Receipt receipt, Throwable error) {
+        transferButton.setDisable(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            messageLabel.setText(cause instanceof RejectedExecutionException
+                    ? "The system is busy. Please try again in a moment."
+                    : "System Error: Transfer could not be processed.");
+            messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+            return;
+        }
+
+        switch (receipt.getStatus()) {
+            case SAME_ACCOUNT:
+                messageLabel.setText("Error: Source and destination accounts must be different.");
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                return;
+            case UNKNOWN_ACCOUNT:
+                // e.g. the account was removed after the dropdown was filled
+                messageLabel.setText("Error: The destination account no longer exists.");
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                return;
+            case INVALID_AMOUNT:
+                // e.g. an amount that rounds to zero cents
+                messageLabel.setText("Error: Please enter a positive amount.");
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                return;
+            case INSUFFICIENT_FUNDS:
+                messageLabel.setText(
+                        String.format("Transfer failed. Insufficient funds in source account. Balance: $%,.2f",
+                                Money.toAmount(receipt.getBalanceAfterCents()))
+                );
+                messageLabel.setTextFill(javafx.scene.paint.Color.RED);
+                return;
+            case NOT_RECORDED:
+                // If the transaction succeeded in the model but failed to log to disk
+                messageLabel.setText("System Warning: Transfer succeeded, but failed to save transaction records to the journal.");
+                messageLabel.setTextFill(javafx.scene.paint.Color.ORANGE);
+                updateSourceAccountLabel();
+                return;
+            default:
+                break;
+        }
+
+        // 5. Success Feedback and UI Update
+        messageLabel.setText(String.format("Successfully transferred $%.2f from %s to %s. Source Bal: $%,.2f. Dest Bal: $%,.2f.",
+                amount,
+                sourceAccount.getAccountNumber(),
+                destination,
+                Money.toAmount(receipt.getBalanceAfterCents()),
+                Money.toAmount(receipt.getCounterpartyBalanceAfterCents())));
+        messageLabel.setTextFill(javafx.scene.paint.Color.web("#38a169")); // Green color for success
+
+        // Clear input fields and reset destination selection
+        amountField.clear();
+        transferToButton.setText("Select Destination Account");
+        selectedDestinationNumber = null;
+
+        // Update the source balance display
+        updateSourceAccountLabel();
+    }
 
     /**
      * Handles navigation back to the original Account Page using the stored source account type.
@@ -278,19 +283,8 @@ public class transferController {
         }
 
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
-
-            // Note: If the target page needs data (like the source account object itself),
-            // you would call a set data method on the target controller here, similar to how
-            // setSourceAccount was called on this controller.
-
-            Stage window = (Stage)((Node)event.getSource()).getScene().getWindow();
-            Scene scene = new Scene(root);
-
-            window.setScene(scene);
-            window.setTitle("Bank App - " + title);
-            window.show();
+            // The account page refreshes itself from the logged-in customer when shown
+            SceneNavigator.getInstance().show(event, fxmlPath, "Bank App - " + title);
 
         } catch (IOException e) {
             e.printStackTrace();